@@ -0,0 +1,101 @@
+package com.example.flightmanager.benchmark;
+
+import com.example.flightmanager.FlightManagerApplication;
+import com.example.flightmanager.dto.FlightDTO;
+import com.example.flightmanager.dto.PassengerDTO;
+import com.example.flightmanager.service.FlightService;
+import com.example.flightmanager.service.PassengerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(256)
+@Fork(1)
+public class FlightControllerLoadBenchmark {
+    private static final int FLIGHTS = 1_000;
+    private static final int PASSENGERS = 100;
+    private static final int PASSENGERS_PER_FLIGHT = 10;
+    private static final int CONNECTIONS = 50;
+    private static final String[] ROUTES = {"Warsaw - Oslo", "Chicago - Warsaw", "Roma - Stockholm", "Palermo - Berlin"};
+
+    @Param({"platform", "virtual-threads", "reactive"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private int passengerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (mode.equals("virtual-threads") && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("The virtual-threads mode needs Java 21, running on " + Runtime.version());
+        }
+        context = new SpringApplicationBuilder(FlightManagerApplication.class)
+                .profiles(mode)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.datasource.hikari.maximum-pool-size=" + CONNECTIONS,
+                        "spring.r2dbc.pool.max-size=" + CONNECTIONS,
+                        "spring.cache.type=none",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.web=WARN")
+                .run();
+        FlightService flightService = context.getBean(FlightService.class);
+        PassengerService passengerService = context.getBean(PassengerService.class);
+        LocalDateTime departure = LocalDateTime.now().plusDays(30);
+        int[] passengerIds = new int[PASSENGERS];
+        for (int i = 0; i < PASSENGERS; i++) {
+            passengerIds[i] = passengerService.addPassenger(new PassengerDTO(0, "Name" + i, "Surname" + i, "000 000 " + i)).id();
+        }
+        for (int i = 0; i < FLIGHTS; i++) {
+            FlightDTO flight = flightService.addFlight(new FlightDTO(0, i + 1, ROUTES[i % ROUTES.length], departure.plusHours(i), 200, null));
+            for (int j = 0; j < PASSENGERS_PER_FLIGHT; j++) {
+                flightService.addPassenger(flight.id(), passengerIds[(i + j) % PASSENGERS]);
+            }
+        }
+        passengerId = passengerIds[PASSENGERS - 1];
+        client = HttpClient.newHttpClient();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getPassenger() throws IOException, InterruptedException {
+        return get("/passengers/" + passengerId);
+    }
+
+    @Benchmark
+    public int readSummaryPage() throws IOException, InterruptedException {
+        return get("/flights?page=3&size=50");
+    }
+
+    @Benchmark
+    public int search() throws IOException, InterruptedException {
+        return get("/flights/search?origin=Warsaw&availableSeats=1&size=20");
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.flightmanager.benchmark;
+
+import com.example.flightmanager.dto.CursorPageDTO;
+import com.example.flightmanager.dto.FlightDTO;
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.dto.PassengerDTO;
+import com.example.flightmanager.service.FlightService;
+import com.example.flightmanager.service.PassengerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class FlightServiceBenchmark {
+    private static final int FLIGHTS = 1_000;
+    private static final int PASSENGERS = 100;
+    private static final int PASSENGERS_PER_FLIGHT = 10;
+    private static final String[] ROUTES = {"Warsaw - Oslo", "Chicago - Warsaw", "Roma - Stockholm", "Palermo - Berlin"};
+
+    protected FlightService flightService;
+    protected PassengerService passengerService;
+    private final Pageable page = PageRequest.of(3, 50);
+    private final Pageable searchPage = PageRequest.of(0, 20, Sort.by("departure"));
+    private int flightId;
+    private int bookingPassengerId;
+    private String cursor;
+
+    protected abstract void start();
+
+    protected <T> T inRequest(Supplier<T> call) {
+        return call.get();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        start();
+        LocalDateTime departure = LocalDateTime.now().plusDays(30);
+        int[] passengerIds = new int[PASSENGERS];
+        for (int i = 0; i < PASSENGERS; i++) {
+            passengerIds[i] = passengerService.addPassenger(new PassengerDTO(0, "Name" + i, "Surname" + i, "000 000 " + i)).id();
+        }
+        for (int i = 0; i < FLIGHTS; i++) {
+            FlightDTO flight = flightService.addFlight(new FlightDTO(0, i + 1, ROUTES[i % ROUTES.length], departure.plusHours(i), 200, null));
+            for (int j = 0; j < PASSENGERS_PER_FLIGHT; j++) {
+                int passengerId = passengerIds[(i + j) % PASSENGERS];
+                inRequest(() -> flightService.addPassenger(flight.id(), passengerId));
+            }
+            flightId = flight.id();
+        }
+        cursor = inRequest(() -> flightService.readFlightsAfter(null, 150)).nextCursor();
+        bookingPassengerId = passengerService.addPassenger(new PassengerDTO(0, "Jan", "Nowak", "111 222 333")).id();
+    }
+
+    @Benchmark
+    public FlightDTO getFlight() {
+        return inRequest(() -> flightService.getFlightDto(flightId));
+    }
+
+    @Benchmark
+    public List<FlightDTO> readPage() {
+        return inRequest(() -> flightService.readAllFlights(page));
+    }
+
+    @Benchmark
+    public CursorPageDTO<FlightDTO> scrollPage() {
+        return inRequest(() -> flightService.readFlightsAfter(cursor, 50));
+    }
+
+    @Benchmark
+    public List<FlightSummaryDTO> readSummaryPage() {
+        return inRequest(() -> flightService.readAllFlightSummaries(page));
+    }
+
+    @Benchmark
+    public List<FlightDTO> search() {
+        return inRequest(() -> flightService.search(null, "Warsaw", null, null, null, 1, searchPage));
+    }
+
+    @Benchmark
+    public List<FlightDTO> searchByRoute() {
+        return inRequest(() -> flightService.search("Warsaw", null, null, null, null, 1, searchPage));
+    }
+
+    @Benchmark
+    public List<FlightSummaryDTO> searchUpcoming() {
+        return inRequest(() -> flightService.searchSummaries(null, null, null, null, null, 1, searchPage));
+    }
+
+    @Benchmark
+    public FlightDTO bookAndCancel() {
+        return inRequest(() -> {
+            flightService.addPassenger(flightId, bookingPassengerId);
+            return flightService.deletePassenger(flightId, bookingPassengerId);
+        });
+    }
+}
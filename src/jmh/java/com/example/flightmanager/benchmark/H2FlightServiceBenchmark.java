@@ -0,0 +1,44 @@
+package com.example.flightmanager.benchmark;
+
+import com.example.flightmanager.FlightManagerApplication;
+import com.example.flightmanager.service.FlightService;
+import com.example.flightmanager.service.PassengerService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+public class H2FlightServiceBenchmark extends FlightServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    protected void start() {
+        context = new SpringApplicationBuilder(FlightManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.web=WARN")
+                .run();
+        flightService = context.getBean(FlightService.class);
+        passengerService = context.getBean(PassengerService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @Override
+    protected <T> T inRequest(Supplier<T> call) {
+        return transactionTemplate.execute(status -> call.get());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
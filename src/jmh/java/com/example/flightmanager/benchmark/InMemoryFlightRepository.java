@@ -0,0 +1,288 @@
+package com.example.flightmanager.benchmark;
+
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.dto.PassengerDTO;
+import com.example.flightmanager.dto.RouteCountDTO;
+import com.example.flightmanager.model.Flight;
+import com.example.flightmanager.model.Passenger;
+import com.example.flightmanager.repository.FlightRepository;
+import com.example.flightmanager.repository.PassengerRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class InMemoryFlightRepository implements FlightRepository {
+    private static final Comparator<Flight> KEYSET_ORDER = Comparator.comparing(Flight::getDeparture).thenComparingInt(Flight::getId);
+
+    private final Map<Integer, Flight> flights = new ConcurrentSkipListMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final PassengerRepository passengerRepository;
+
+    InMemoryFlightRepository(PassengerRepository passengerRepository) {
+        this.passengerRepository = passengerRepository;
+    }
+
+    @Override
+    public List<Flight> findAll() {
+        return flights.values().stream().map(this::copy).toList();
+    }
+
+    @Override
+    public Slice<Flight> findAllBy(Pageable pageable) {
+        List<Flight> page = flights.values().stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(this::copy)
+                .toList();
+        return new SliceImpl<>(page, pageable, pageable.getOffset() + page.size() < flights.size());
+    }
+
+    @Override
+    public List<Flight> findFirstKeysetPage(Pageable pageable) {
+        return flights.values().stream()
+                .sorted(KEYSET_ORDER)
+                .limit(pageable.getPageSize())
+                .map(this::copy)
+                .toList();
+    }
+
+    @Override
+    public List<Flight> findKeysetPageAfter(LocalDateTime departure, int id, Pageable pageable) {
+        return flights.values().stream()
+                .filter(flight -> flight.getDeparture().isAfter(departure)
+                        || flight.getDeparture().isEqual(departure) && flight.getId() > id)
+                .sorted(KEYSET_ORDER)
+                .limit(pageable.getPageSize())
+                .map(this::copy)
+                .toList();
+    }
+
+    @Override
+    public List<FlightSummaryDTO> findAllSummaries() {
+        return flights.values().stream().map(this::summary).toList();
+    }
+
+    @Override
+    public Slice<FlightSummaryDTO> findAllSummaries(Pageable pageable) {
+        List<FlightSummaryDTO> page = flights.values().stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(this::summary)
+                .toList();
+        return new SliceImpl<>(page, pageable, pageable.getOffset() + page.size() < flights.size());
+    }
+
+    @Override
+    public List<FlightSummaryDTO> findSummariesByIdIn(Collection<Integer> ids) {
+        return ids.stream().map(flights::get).filter(Objects::nonNull).map(this::summary).toList();
+    }
+
+    @Override
+    public List<FlightSummaryDTO> findSummariesByDepartureAfter(LocalDateTime departure) {
+        return flights.values().stream().filter(flight -> flight.getDeparture().isAfter(departure)).map(this::summary).toList();
+    }
+
+    @Override
+    public List<RouteCountDTO> findRouteCounts() {
+        return flights.values().stream()
+                .collect(Collectors.groupingBy(Flight::getRoute, Collectors.counting()))
+                .entrySet().stream()
+                .map(entry -> new RouteCountDTO(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    public Slice<PassengerDTO> findPassengersByFlightId(int flightId, Pageable pageable) {
+        List<PassengerDTO> passengers = flights.get(flightId).getPassengers().stream()
+                .sorted(Comparator.comparingInt(Passenger::getId))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1L)
+                .map(passenger -> new PassengerDTO(passenger.getId(), passenger.getName(), passenger.getSurname(), passenger.getPhone()))
+                .toList();
+        boolean hasNext = passengers.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? passengers.subList(0, pageable.getPageSize()) : passengers, pageable, hasNext);
+    }
+
+    @Override
+    public Slice<FlightSummaryDTO> findSummariesByPassengerId(int passengerId, Pageable pageable) {
+        return search(flight -> flight.getPassengers().stream().anyMatch(passenger -> passenger.getId() == passengerId),
+                LocalDateTime.MIN, LocalDateTime.MAX, 0, pageable).map(this::summary);
+    }
+
+    @Override
+    public Optional<Flight> findById(Integer id) {
+        return Optional.ofNullable(flights.get(id)).map(this::copy);
+    }
+
+    @Override
+    public List<Flight> findAllById(Iterable<Integer> ids) {
+        List<Flight> found = new ArrayList<>();
+        ids.forEach(id -> findById(id).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public Optional<String> findVersionTagById(int id) {
+        return Optional.ofNullable(flights.get(id)).map(flight -> flight.getVersion() + "-" + flight.getPassengers().size()
+                + "-" + flight.getPassengers().stream().mapToLong(Passenger::getVersion).sum());
+    }
+
+    @Override
+    public String findVersionTag() {
+        int lastId = flights.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        return flights.size() + "-" + lastId + "-" + flights.values().stream().mapToLong(Flight::getVersion).sum();
+    }
+
+    @Override
+    public Stream<Flight> streamAll() {
+        return flights.values().stream().map(this::copy);
+    }
+
+    @Override
+    public void detachAll() {
+    }
+
+    @Override
+    public Flight save(Flight entity) {
+        if (entity.getId() == 0) {
+            ReflectionTestUtils.setField(entity, "id", sequence.incrementAndGet());
+        }
+        flights.put(entity.getId(), copy(entity));
+        return entity;
+    }
+
+    @Override
+    public <S extends Flight> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> {
+            save(entity);
+            saved.add(entity);
+        });
+        return saved;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void delete(Flight entity) {
+        flights.remove(entity.getId());
+    }
+
+    @Override
+    public Slice<Flight> findByRouteContainingAndDepartureAfterAndDepartureBeforeAndAvailableSeatsGreaterThanEqual(String route, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable) {
+        return search(flight -> flight.getRoute().contains(route), departureAfter, departureBefore, availableSeats, pageable);
+    }
+
+    @Override
+    public Slice<Flight> findByOriginStartingWithAndDestinationStartingWithAndDepartureAfterAndDepartureBeforeAndAvailableSeatsGreaterThanEqual(String origin, String destination, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable) {
+        return search(flight -> flight.getOrigin().startsWith(origin) && flight.getDestination().startsWith(destination),
+                departureAfter, departureBefore, availableSeats, pageable);
+    }
+
+    @Override
+    public Slice<FlightSummaryDTO> findSummariesByRoute(String route, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable) {
+        return findByRouteContainingAndDepartureAfterAndDepartureBeforeAndAvailableSeatsGreaterThanEqual(route, departureAfter, departureBefore, availableSeats, pageable)
+                .map(this::summary);
+    }
+
+    @Override
+    public Slice<FlightSummaryDTO> findSummariesByOriginAndDestination(String origin, String destination, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable) {
+        return findByOriginStartingWithAndDestinationStartingWithAndDepartureAfterAndDepartureBeforeAndAvailableSeatsGreaterThanEqual(origin, destination, departureAfter, departureBefore, availableSeats, pageable)
+                .map(this::summary);
+    }
+
+    private Slice<Flight> search(Predicate<Flight> matcher, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable) {
+        List<Flight> matches = flights.values().stream()
+                .filter(matcher)
+                .filter(flight -> flight.getDeparture().isAfter(departureAfter) && flight.getDeparture().isBefore(departureBefore))
+                .filter(flight -> flight.getAvailableSeats() >= availableSeats)
+                .sorted(Comparator.comparing(Flight::getDeparture))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1L)
+                .map(this::copy)
+                .toList();
+        boolean hasNext = matches.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? matches.subList(0, pageable.getPageSize()) : matches, pageable, hasNext);
+    }
+
+    @Override
+    public synchronized int reserveSeats(int flightId, int seats) {
+        Flight flight = flights.get(flightId);
+        if (flight == null || flight.getAvailableSeats() < seats) {
+            return 0;
+        }
+        flight.setAvailableSeats(flight.getAvailableSeats() - seats);
+        return 1;
+    }
+
+    @Override
+    public synchronized int releaseSeat(int flightId) {
+        Flight flight = flights.get(flightId);
+        if (flight == null) {
+            return 0;
+        }
+        flight.setAvailableSeats(flight.getAvailableSeats() + 1);
+        return 1;
+    }
+
+    @Override
+    public boolean containsPassenger(int flightId, int passengerId) {
+        return flights.get(flightId).getPassengers().stream().anyMatch(passenger -> passenger.getId() == passengerId);
+    }
+
+    @Override
+    public List<Integer> findPassengerIdsOnFlight(int flightId, Collection<Integer> passengerIds) {
+        return flights.get(flightId).getPassengers().stream()
+                .map(Passenger::getId)
+                .filter(passengerIds::contains)
+                .toList();
+    }
+
+    @Override
+    public synchronized int insertPassenger(int flightId, int passengerId) {
+        Passenger passenger = passengerRepository.findById(passengerId).orElseThrow();
+        return flights.get(flightId).getPassengers().add(passenger) ? 1 : 0;
+    }
+
+    @Override
+    public synchronized int insertPassengers(int flightId, Collection<Integer> passengerIds) {
+        return passengerIds.stream().mapToInt(passengerId -> insertPassenger(flightId, passengerId)).sum();
+    }
+
+    @Override
+    public synchronized int removePassenger(int flightId, int passengerId) {
+        Passenger passenger = passengerRepository.findById(passengerId).orElseThrow();
+        return flights.get(flightId).getPassengers().remove(passenger) ? 1 : 0;
+    }
+
+    private FlightSummaryDTO summary(Flight flight) {
+        return new FlightSummaryDTO(flight.getId(), flight.getNumber(), flight.getRoute(), flight.getDeparture(), flight.getAvailableSeats(),
+                flight.getPassengers().size());
+    }
+
+    private Flight copy(Flight source) {
+        Set<Passenger> passengers = source.getPassengers() != null ? new HashSet<>(source.getPassengers()) : new HashSet<>();
+        Flight flight = new Flight(source.getNumber(), source.getRoute(), source.getDeparture(), source.getAvailableSeats(), passengers);
+        ReflectionTestUtils.setField(flight, "id", source.getId());
+        return flight;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.flightmanager.benchmark;
+
+import com.example.flightmanager.mapper.FlightMapperImpl;
+import com.example.flightmanager.mapper.PassengerMapperImpl;
+import com.example.flightmanager.repository.FlightRepository;
+import com.example.flightmanager.service.DepartureIndex;
+import com.example.flightmanager.service.FlightService;
+import com.example.flightmanager.service.PassengerService;
+import com.example.flightmanager.service.PendingBookings;
+import com.example.flightmanager.service.RouteIndex;
+import com.example.flightmanager.service.SeatReservationService;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+import java.time.Duration;
+
+public class InMemoryFlightServiceBenchmark extends FlightServiceBenchmark {
+
+    @Override
+    protected void start() {
+        InMemoryPassengerRepository passengerRepository = new InMemoryPassengerRepository();
+        FlightRepository flightRepository = new InMemoryFlightRepository(passengerRepository);
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        DepartureIndex departureIndex = new DepartureIndex(flightRepository, new InMemoryTransactionManager(), true, Duration.ofHours(1));
+        departureIndex.load();
+        passengerService = new PassengerService(passengerRepository, new PassengerMapperImpl(), validator);
+        flightService = new FlightService(flightRepository, passengerService, new FlightMapperImpl(),
+                new SeatReservationService(flightRepository), validator, departureIndex, new RouteIndex(flightRepository), new PendingBookings());
+    }
+}
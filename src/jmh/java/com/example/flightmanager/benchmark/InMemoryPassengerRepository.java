@@ -0,0 +1,155 @@
+package com.example.flightmanager.benchmark;
+
+import com.example.flightmanager.model.Passenger;
+import com.example.flightmanager.repository.PassengerRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+class InMemoryPassengerRepository implements PassengerRepository {
+
+    private final Map<Integer, Passenger> passengers = new ConcurrentSkipListMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Override
+    public List<Passenger> findAll() {
+        return new ArrayList<>(passengers.values());
+    }
+
+    @Override
+    public Slice<Passenger> findAllBy(Pageable pageable) {
+        List<Passenger> all = findAll();
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new SliceImpl<>(all.subList(from, to), pageable, to < all.size());
+    }
+
+    @Override
+    public List<Passenger> findByIdGreaterThanOrderByIdAsc(int id, Pageable pageable) {
+        return passengers.values().stream()
+                .filter(passenger -> passenger.getId() > id)
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public List<Passenger> findByFingerprintIsNullAndIdGreaterThanOrderByIdAsc(int id, Pageable pageable) {
+        return passengers.values().stream()
+                .filter(passenger -> passenger.getFingerprint() == null && passenger.getId() > id)
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public Optional<Passenger> findByFingerprint(String fingerprint) {
+        return passengers.values().stream()
+                .filter(passenger -> fingerprint.equals(passenger.getFingerprint()))
+                .findFirst();
+    }
+
+    @Override
+    public List<String> findFingerprintsIn(Collection<String> fingerprints) {
+        return passengers.values().stream()
+                .map(Passenger::getFingerprint)
+                .filter(fingerprints::contains)
+                .toList();
+    }
+
+    @Override
+    public Optional<Passenger> findById(Integer id) {
+        return Optional.ofNullable(passengers.get(id));
+    }
+
+    @Override
+    public Slice<Passenger> findByPhoneAndNamePrefix(String phone, String surname, String name, Pageable pageable) {
+        return slice(passengers.values().stream()
+                .filter(passenger -> passenger.getNormalizedPhone().equals(phone))
+                .filter(passenger -> passenger.getNormalizedSurname().startsWith(surname) && passenger.getNormalizedName().startsWith(name)), pageable);
+    }
+
+    @Override
+    public Slice<Passenger> findByNamePrefix(String surname, String name, Pageable pageable) {
+        return slice(passengers.values().stream()
+                .filter(passenger -> passenger.getNormalizedSurname().startsWith(surname) && passenger.getNormalizedName().startsWith(name))
+                .sorted(Comparator.comparing(Passenger::getNormalizedSurname).thenComparing(Passenger::getNormalizedName)), pageable);
+    }
+
+    @Override
+    public Slice<Passenger> findByFirstNamePrefix(String name, Pageable pageable) {
+        return slice(passengers.values().stream()
+                .filter(passenger -> passenger.getNormalizedName().startsWith(name))
+                .sorted(Comparator.comparing(Passenger::getNormalizedName).thenComparing(Passenger::getNormalizedSurname)), pageable);
+    }
+
+    private static Slice<Passenger> slice(Stream<Passenger> matching, Pageable pageable) {
+        List<Passenger> page = matching.skip(pageable.getOffset()).limit(pageable.getPageSize() + 1L).toList();
+        boolean hasNext = page.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? page.subList(0, pageable.getPageSize()) : page, pageable, hasNext);
+    }
+
+    @Override
+    public Optional<Integer> findVersionById(int id) {
+        return findById(id).map(Passenger::getVersion);
+    }
+
+    @Override
+    public String findVersionTag() {
+        int lastId = passengers.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        return passengers.size() + "-" + lastId + "-" + passengers.values().stream().mapToLong(Passenger::getVersion).sum();
+    }
+
+    @Override
+    public List<Passenger> findAllById(Iterable<Integer> ids) {
+        List<Passenger> found = new ArrayList<>();
+        ids.forEach(id -> findById(id).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public Stream<Passenger> streamAll() {
+        return passengers.values().stream();
+    }
+
+    @Override
+    public void detachAll() {
+    }
+
+    @Override
+    public Passenger save(Passenger entity) {
+        if (entity.getId() == 0) {
+            ReflectionTestUtils.setField(entity, "id", sequence.incrementAndGet());
+        }
+        passengers.put(entity.getId(), entity);
+        return entity;
+    }
+
+    @Override
+    public <S extends Passenger> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> {
+            save(entity);
+            saved.add(entity);
+        });
+        return saved;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void delete(Passenger entity) {
+        passengers.remove(entity.getId());
+    }
+}
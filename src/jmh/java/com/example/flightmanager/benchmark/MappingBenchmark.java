@@ -0,0 +1,62 @@
+package com.example.flightmanager.benchmark;
+
+import com.example.flightmanager.dto.FlightDTO;
+import com.example.flightmanager.dto.PassengerDTO;
+import com.example.flightmanager.mapper.FlightMapper;
+import com.example.flightmanager.mapper.FlightMapperImpl;
+import com.example.flightmanager.mapper.PassengerMapper;
+import com.example.flightmanager.mapper.PassengerMapperImpl;
+import com.example.flightmanager.model.Flight;
+import com.example.flightmanager.model.Passenger;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"0", "10", "200"})
+    private int passengers;
+
+    private final FlightMapper flightMapper = new FlightMapperImpl();
+    private final PassengerMapper passengerMapper = new PassengerMapperImpl();
+    private Flight flight;
+    private Passenger passenger;
+    private Passenger newPassenger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Set<Passenger> onBoard = new HashSet<>();
+        for (int i = 0; i < passengers; i++) {
+            onBoard.add(new Passenger("Name" + i, "Surname" + i, "000 000 " + i));
+        }
+        flight = new Flight(13, "Warsaw - Oslo", LocalDateTime.now().plusDays(2), passengers + 1, onBoard);
+        passenger = new Passenger("Han", "Solo", "123 456 789");
+        newPassenger = new Passenger("Leia", "Organa", "789 456 123");
+    }
+
+    @Benchmark
+    public FlightDTO flightEntityToDto() {
+        return flightMapper.entityToDto(flight);
+    }
+
+    @Benchmark
+    public PassengerDTO passengerEntityToDto() {
+        return passengerMapper.entityToDto(passenger);
+    }
+
+    @Benchmark
+    public Flight addAndDeletePassenger() {
+        flight.addPassenger(newPassenger);
+        flight.deletePassenger(newPassenger);
+        return flight;
+    }
+}
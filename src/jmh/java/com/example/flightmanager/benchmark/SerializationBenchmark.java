@@ -0,0 +1,110 @@
+package com.example.flightmanager.benchmark;
+
+import com.example.flightmanager.dto.FlightDTO;
+import com.example.flightmanager.model.Passenger;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    private static final int PASSENGERS_PER_FLIGHT = 10;
+
+    @Param({"default", "blackbird"})
+    private String serializer;
+
+    @Param({"100", "1000"})
+    private int flights;
+
+    private ObjectWriter writer;
+    private ObjectWriter cborWriter;
+    private List<FlightDTO> payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectMapper cborMapper = new CBORMapper();
+        for (ObjectMapper mapper : List.of(objectMapper, cborMapper)) {
+            mapper.registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+            if (serializer.equals("blackbird")) {
+                mapper.registerModule(new BlackbirdModule());
+            }
+        }
+        TypeReference<List<FlightDTO>> type = new TypeReference<>() {
+        };
+        writer = objectMapper.writerFor(type);
+        cborWriter = cborMapper.writerFor(type);
+        LocalDateTime departure = LocalDateTime.of(2030, 6, 1, 12, 0);
+        payload = new ArrayList<>();
+        for (int i = 0; i < flights; i++) {
+            Set<Passenger> passengers = new HashSet<>();
+            for (int j = 0; j < PASSENGERS_PER_FLIGHT; j++) {
+                int n = i * PASSENGERS_PER_FLIGHT + j;
+                passengers.add(new Passenger("Name" + n, "Surname" + n, "000 000 " + n));
+            }
+            payload.add(new FlightDTO(i, i, "Warsaw - Oslo", departure.plusHours(i), 100, passengers));
+        }
+    }
+
+    @Benchmark
+    public byte[] json(PayloadSize size) throws IOException {
+        return size.of(writer.writeValueAsBytes(payload));
+    }
+
+    @Benchmark
+    public byte[] gzippedJson(PayloadSize size) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            writer.writeValue(gzip, payload);
+        }
+        return size.of(bytes.toByteArray());
+    }
+
+    @Benchmark
+    public byte[] cbor(PayloadSize size) throws IOException {
+        return size.of(cborWriter.writeValueAsBytes(payload));
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long bytes;
+        private int measured;
+        private boolean recording;
+
+        @Setup(Level.Iteration)
+        public void reset(IterationParams iteration) {
+            bytes = 0;
+            recording = iteration.getType() == IterationType.MEASUREMENT && ++measured == iteration.getCount();
+        }
+
+        byte[] of(byte[] payload) {
+            if (recording) {
+                bytes = payload.length;
+            }
+            return payload;
+        }
+    }
+}
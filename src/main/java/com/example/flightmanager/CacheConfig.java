@@ -0,0 +1,12 @@
+package com.example.flightmanager;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    public static final String FLIGHTS = "flights";
+    public static final String PASSENGERS = "passengers";
+}
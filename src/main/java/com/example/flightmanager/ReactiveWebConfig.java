@@ -0,0 +1,55 @@
+package com.example.flightmanager;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.ReactiveSortHandlerMethodArgumentResolver;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+import org.springframework.web.server.ServerWebExchange;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        ReactivePageableHandlerMethodArgumentResolver pageableResolver = new SortingPageableResolver(new ReactiveSortHandlerMethodArgumentResolver());
+        pageableResolver.setFallbackPageable(Pageable.unpaged());
+        configurer.addCustomResolver(pageableResolver);
+    }
+
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        registry.addMapping("/**")
+                .allowedOrigins("*")
+                .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH")
+                .allowedHeaders("*")
+                .allowCredentials(false);
+    }
+
+    private static final class SortingPageableResolver extends ReactivePageableHandlerMethodArgumentResolver {
+        private final ReactiveSortHandlerMethodArgumentResolver sortResolver;
+
+        SortingPageableResolver(ReactiveSortHandlerMethodArgumentResolver sortResolver) {
+            super(sortResolver);
+            this.sortResolver = sortResolver;
+        }
+
+        @Override
+        public Pageable resolveArgumentValue(MethodParameter parameter, BindingContext bindingContext, ServerWebExchange exchange) {
+            MultiValueMap<String, String> params = exchange.getRequest().getQueryParams();
+            Pageable pageable = getPageable(parameter,
+                    params.getFirst(getParameterNameToUse(getPageParameterName(), parameter)),
+                    params.getFirst(getParameterNameToUse(getSizeParameterName(), parameter)));
+            return pageable.isPaged()
+                    ? super.resolveArgumentValue(parameter, bindingContext, exchange)
+                    : Pageable.unpaged(sortResolver.resolveArgumentValue(parameter, bindingContext, exchange));
+        }
+    }
+}
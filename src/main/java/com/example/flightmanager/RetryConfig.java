@@ -0,0 +1,10 @@
+package com.example.flightmanager;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.retry.annotation.EnableRetry;
+
+@Configuration
+@EnableRetry(order = Ordered.HIGHEST_PRECEDENCE + 1)
+public class RetryConfig {
+}
@@ -1,13 +1,23 @@
 package com.example.flightmanager;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
     @Bean
     public WebMvcConfigurer corsConfigurer() {
         return new WebMvcConfigurer() {
@@ -21,4 +31,12 @@ public class WebConfig implements WebMvcConfigurer {
             }
         };
     }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.stream()
+                .filter(MappingJackson2CborHttpMessageConverter.class::isInstance)
+                .map(MappingJackson2CborHttpMessageConverter.class::cast)
+                .forEach(converter -> converter.setObjectMapper(objectMapperBuilder.factory(new CBORFactory()).build()));
+    }
 }
@@ -0,0 +1,5 @@
+package com.example.flightmanager.adapter;
+
+interface DetachableRepository {
+    void detachAll();
+}
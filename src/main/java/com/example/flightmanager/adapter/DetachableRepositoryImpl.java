@@ -0,0 +1,15 @@
+package com.example.flightmanager.adapter;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+class DetachableRepositoryImpl implements DetachableRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void detachAll() {
+        entityManager.clear();
+    }
+}
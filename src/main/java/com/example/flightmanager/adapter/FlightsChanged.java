@@ -0,0 +1,6 @@
+package com.example.flightmanager.adapter;
+
+import java.util.Collection;
+
+record FlightsChanged(Collection<Integer> ids) {
+}
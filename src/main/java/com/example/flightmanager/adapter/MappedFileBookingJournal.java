@@ -0,0 +1,82 @@
+package com.example.flightmanager.adapter;
+
+import com.example.flightmanager.exception.BookingJournalFullException;
+import com.example.flightmanager.repository.BookingJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+@Repository
+@Profile("write-behind")
+class MappedFileBookingJournal implements BookingJournal, Closeable {
+    private static final int WRITE_POSITION = 0;
+    private static final int FLUSHED_POSITION = Long.BYTES;
+    private static final int HEADER_SIZE = 2 * Long.BYTES;
+    private static final int ENTRY_SIZE = 2 * Integer.BYTES;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    MappedFileBookingJournal(@Value("${flight-manager.booking-journal.path}") Path path,
+                             @Value("${flight-manager.booking-journal.capacity}") int capacity) throws IOException {
+        this.capacity = capacity;
+        this.channel = FileChannel.open(path, CREATE, READ, WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * ENTRY_SIZE);
+        if (buffer.getLong(FLUSHED_POSITION) > buffer.getLong(WRITE_POSITION)) {
+            buffer.putLong(FLUSHED_POSITION, buffer.getLong(WRITE_POSITION));
+        }
+    }
+
+    @Override
+    public synchronized void append(int flightId, int passengerId) {
+        long position = buffer.getLong(WRITE_POSITION);
+        if (position - buffer.getLong(FLUSHED_POSITION) == capacity) {
+            throw new BookingJournalFullException();
+        }
+        int offset = offset(position);
+        buffer.putInt(offset, flightId);
+        buffer.putInt(offset + Integer.BYTES, passengerId);
+        buffer.putLong(WRITE_POSITION, position + 1);
+    }
+
+    @Override
+    public synchronized List<Entry> pending(int limit) {
+        long flushed = buffer.getLong(FLUSHED_POSITION);
+        long end = Math.min(buffer.getLong(WRITE_POSITION), flushed + limit);
+        List<Entry> entries = new ArrayList<>((int) Math.max(end - flushed, 0));
+        for (long position = flushed; position < end; position++) {
+            int offset = offset(position);
+            entries.add(new Entry(buffer.getInt(offset), buffer.getInt(offset + Integer.BYTES)));
+        }
+        return entries;
+    }
+
+    @Override
+    public synchronized void markFlushed(int count) {
+        long flushed = buffer.getLong(FLUSHED_POSITION) + count;
+        buffer.putLong(FLUSHED_POSITION, Math.min(flushed, buffer.getLong(WRITE_POSITION)));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private int offset(long position) {
+        return HEADER_SIZE + (int) (position % capacity) * ENTRY_SIZE;
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.flightmanager.adapter;
+
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.dto.PassengerDTO;
+import com.example.flightmanager.dto.RouteCountDTO;
+import com.example.flightmanager.model.Flight;
+import com.example.flightmanager.repository.FlightRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Repository
+@Primary
+@Profile("memory-replica")
+@RequiredArgsConstructor
+class MemoryFlightRepository implements FlightRepository {
+
+    private final SqlFlightRepository sqlFlightRepository;
+    private final MemoryReplica replica;
+    private final ApplicationEventPublisher events;
+
+    @Override
+    public List<Flight> findAll() {
+        return replica.serves() ? replica.flights() : sql().findAll();
+    }
+
+    @Override
+    public Slice<Flight> findAllBy(Pageable pageable) {
+        return replica.servesFlights(pageable) ? replica.flights(pageable) : sql().findAllBy(pageable);
+    }
+
+    @Override
+    public List<Flight> findFirstKeysetPage(Pageable pageable) {
+        return replica.serves()
+                ? replica.flightsByDeparture(pageable.getPageSize())
+                : sql().findFirstKeysetPage(pageable);
+    }
+
+    @Override
+    public List<Flight> findKeysetPageAfter(LocalDateTime departure, int id, Pageable pageable) {
+        return replica.serves()
+                ? replica.flightsByDepartureAfter(departure, id, pageable.getPageSize())
+                : sql().findKeysetPageAfter(departure, id, pageable);
+    }
+
+    @Override
+    public List<FlightSummaryDTO> findAllSummaries() {
+        return replica.serves()
+                ? replica.flights().stream().map(MemoryFlightRepository::summary).toList()
+                : sql().findAllSummaries();
+    }
+
+    @Override
+    public Slice<FlightSummaryDTO> findAllSummaries(Pageable pageable) {
+        return replica.servesFlights(pageable)
+                ? replica.flights(pageable).map(MemoryFlightRepository::summary)
+                : sql().findAllSummaries(pageable);
+    }
+
+    @Override
+    public List<FlightSummaryDTO> findSummariesByIdIn(Collection<Integer> ids) {
+        return replica.serves()
+                ? ids.stream().map(replica::flight).flatMap(Optional::stream).map(MemoryFlightRepository::summary).toList()
+                : sql().findSummariesByIdIn(ids);
+    }
+
+    @Override
+    public List<FlightSummaryDTO> findSummariesByDepartureAfter(LocalDateTime departure) {
+        return replica.serves()
+                ? replica.flightsByDepartureAfter(departure, Integer.MAX_VALUE, Integer.MAX_VALUE).stream().map(MemoryFlightRepository::summary).toList()
+                : sql().findSummariesByDepartureAfter(departure);
+    }
+
+    @Override
+    public List<RouteCountDTO> findRouteCounts() {
+        return replica.serves()
+                ? replica.flights().stream()
+                        .collect(Collectors.groupingBy(Flight::getRoute, Collectors.counting()))
+                        .entrySet().stream()
+                        .map(entry -> new RouteCountDTO(entry.getKey(), entry.getValue()))
+                        .toList()
+                : sql().findRouteCounts();
+    }
+
+    @Override
+    public Slice<FlightSummaryDTO> findSummariesByRoute(String route, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable) {
+        return replica.servesFlights(pageable)
+                ? replica.flightsByRoute(route, departureAfter, departureBefore, availableSeats, pageable).map(MemoryFlightRepository::summary)
+                : sql().findSummariesByRoute(route, departureAfter, departureBefore, availableSeats, pageable);
+    }
+
+    @Override
+    public Slice<FlightSummaryDTO> findSummariesByOriginAndDestination(String origin, String destination, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable) {
+        return replica.servesFlights(pageable)
+                ? replica.flightsByOriginAndDestination(origin, destination, departureAfter, departureBefore, availableSeats, pageable).map(MemoryFlightRepository::summary)
+                : sql().findSummariesByOriginAndDestination(origin, destination, departureAfter, departureBefore, availableSeats, pageable);
+    }
+
+    @Override
+    public Slice<PassengerDTO> findPassengersByFlightId(int flightId, Pageable pageable) {
+        return replica.servesPassengers(pageable)
+                ? replica.passengersOfFlight(flightId, pageable).map(passenger -> new PassengerDTO(passenger.getId(), passenger.getName(), passenger.getSurname(), passenger.getPhone()))
+                : sql().findPassengersByFlightId(flightId, pageable);
+    }
+
+    @Override
+    public Slice<FlightSummaryDTO> findSummariesByPassengerId(int passengerId, Pageable pageable) {
+        return replica.servesFlights(pageable)
+                ? replica.flightsOfPassenger(passengerId, pageable).map(MemoryFlightRepository::summary)
+                : sql().findSummariesByPassengerId(passengerId, pageable);
+    }
+
+    @Override
+    public Optional<Flight> findById(Integer id) {
+        return replica.serves() ? replica.flight(id) : sql().findById(id);
+    }
+
+    @Override
+    public List<Flight> findAllById(Iterable<Integer> ids) {
+        if (!replica.serves()) {
+            return sql().findAllById(ids);
+        }
+        List<Flight> found = new ArrayList<>();
+        ids.forEach(id -> replica.flight(id).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public Optional<String> findVersionTagById(int id) {
+        return replica.serves() ? replica.flightVersionTag(id) : sql().findVersionTagById(id);
+    }
+
+    @Override
+    public String findVersionTag() {
+        return replica.serves() ? replica.flightsVersionTag() : sql().findVersionTag();
+    }
+
+    @Override
+    public Stream<Flight> streamAll() {
+        return sql().streamAll();
+    }
+
+    @Override
+    public void detachAll() {
+        sql().detachAll();
+    }
+
+    @Override
+    public Flight save(Flight entity) {
+        Flight saved = sql().save(entity);
+        changed(saved.getId());
+        return saved;
+    }
+
+    @Override
+    public <S extends Flight> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = sql().saveAll(entities);
+        events.publishEvent(new FlightsChanged(saved.stream().map(Flight::getId).toList()));
+        return saved;
+    }
+
+    @Override
+    public void flush() {
+        sql().flush();
+    }
+
+    @Override
+    public void delete(Flight entity) {
+        sql().delete(entity);
+        changed(entity.getId());
+    }
+
+    @Override
+    public Slice<Flight> findByRouteContainingAndDepartureAfterAndDepartureBeforeAndAvailableSeatsGreaterThanEqual(String route, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable) {
+        return replica.servesFlights(pageable)
+                ? replica.flightsByRoute(route, departureAfter, departureBefore, availableSeats, pageable)
+                : sql().findByRouteContainingAndDepartureAfterAndDepartureBeforeAndAvailableSeatsGreaterThanEqual(route, departureAfter, departureBefore, availableSeats, pageable);
+    }
+
+    @Override
+    public Slice<Flight> findByOriginStartingWithAndDestinationStartingWithAndDepartureAfterAndDepartureBeforeAndAvailableSeatsGreaterThanEqual(String origin, String destination, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable) {
+        return replica.servesFlights(pageable)
+                ? replica.flightsByOriginAndDestination(origin, destination, departureAfter, departureBefore, availableSeats, pageable)
+                : sql().findByOriginStartingWithAndDestinationStartingWithAndDepartureAfterAndDepartureBeforeAndAvailableSeatsGreaterThanEqual(origin, destination, departureAfter, departureBefore, availableSeats, pageable);
+    }
+
+    @Override
+    public int reserveSeats(int flightId, int seats) {
+        return changed(flightId, sql().reserveSeats(flightId, seats));
+    }
+
+    @Override
+    public int releaseSeat(int flightId) {
+        return changed(flightId, sql().releaseSeat(flightId));
+    }
+
+    @Override
+    public boolean containsPassenger(int flightId, int passengerId) {
+        return replica.serves()
+                ? replica.containsPassenger(flightId, passengerId)
+                : sql().containsPassenger(flightId, passengerId);
+    }
+
+    @Override
+    public List<Integer> findPassengerIdsOnFlight(int flightId, Collection<Integer> passengerIds) {
+        return replica.serves()
+                ? passengerIds.stream().filter(passengerId -> replica.containsPassenger(flightId, passengerId)).toList()
+                : sql().findPassengerIdsOnFlight(flightId, passengerIds);
+    }
+
+    @Override
+    public int insertPassenger(int flightId, int passengerId) {
+        return changed(flightId, sql().insertPassenger(flightId, passengerId));
+    }
+
+    @Override
+    public int insertPassengers(int flightId, Collection<Integer> passengerIds) {
+        return changed(flightId, sql().insertPassengers(flightId, passengerIds));
+    }
+
+    @Override
+    public int removePassenger(int flightId, int passengerId) {
+        return changed(flightId, sql().removePassenger(flightId, passengerId));
+    }
+
+    private int changed(int flightId, int updated) {
+        if (updated > 0) {
+            changed(flightId);
+        }
+        return updated;
+    }
+
+    private void changed(int flightId) {
+        events.publishEvent(new FlightsChanged(List.of(flightId)));
+    }
+
+    private static FlightSummaryDTO summary(Flight flight) {
+        return new FlightSummaryDTO(flight.getId(), flight.getNumber(), flight.getRoute(), flight.getDeparture(),
+                flight.getAvailableSeats(), flight.getPassengers().size());
+    }
+
+    private FlightRepository sql() {
+        return sqlFlightRepository;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.flightmanager.adapter;
+
+import com.example.flightmanager.model.Passenger;
+import com.example.flightmanager.repository.PassengerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+@Primary
+@Profile("memory-replica")
+@RequiredArgsConstructor
+class MemoryPassengerRepository implements PassengerRepository {
+
+    private final SqlPassengerRepository sqlPassengerRepository;
+    private final MemoryReplica replica;
+    private final ApplicationEventPublisher events;
+
+    @Override
+    public List<Passenger> findAll() {
+        return replica.serves() ? replica.passengers() : sql().findAll();
+    }
+
+    @Override
+    public Slice<Passenger> findAllBy(Pageable pageable) {
+        return replica.servesPassengers(pageable) ? replica.passengers(pageable) : sql().findAllBy(pageable);
+    }
+
+    @Override
+    public List<Passenger> findByIdGreaterThanOrderByIdAsc(int id, Pageable pageable) {
+        return replica.serves()
+                ? replica.passengersAfter(id, pageable.getPageSize())
+                : sql().findByIdGreaterThanOrderByIdAsc(id, pageable);
+    }
+
+    @Override
+    public List<Passenger> findByFingerprintIsNullAndIdGreaterThanOrderByIdAsc(int id, Pageable pageable) {
+        return sql().findByFingerprintIsNullAndIdGreaterThanOrderByIdAsc(id, pageable);
+    }
+
+    @Override
+    public Optional<Passenger> findByFingerprint(String fingerprint) {
+        return sql().findByFingerprint(fingerprint);
+    }
+
+    @Override
+    public List<String> findFingerprintsIn(Collection<String> fingerprints) {
+        return sql().findFingerprintsIn(fingerprints);
+    }
+
+    @Override
+    public Optional<Passenger> findById(Integer id) {
+        return replica.serves() ? replica.passenger(id) : sql().findById(id);
+    }
+
+    @Override
+    public Slice<Passenger> findByPhoneAndNamePrefix(String phone, String surname, String name, Pageable pageable) {
+        return sql().findByPhoneAndNamePrefix(phone, surname, name, pageable);
+    }
+
+    @Override
+    public Slice<Passenger> findByNamePrefix(String surname, String name, Pageable pageable) {
+        return sql().findByNamePrefix(surname, name, pageable);
+    }
+
+    @Override
+    public Slice<Passenger> findByFirstNamePrefix(String name, Pageable pageable) {
+        return sql().findByFirstNamePrefix(name, pageable);
+    }
+
+    @Override
+    public Optional<Integer> findVersionById(int id) {
+        return replica.serves() ? replica.passenger(id).map(Passenger::getVersion) : sql().findVersionById(id);
+    }
+
+    @Override
+    public String findVersionTag() {
+        return replica.serves() ? replica.passengersVersionTag() : sql().findVersionTag();
+    }
+
+    @Override
+    public List<Passenger> findAllById(Iterable<Integer> ids) {
+        return replica.serves() ? replica.passengers(ids) : sql().findAllById(ids);
+    }
+
+    @Override
+    public Stream<Passenger> streamAll() {
+        return sql().streamAll();
+    }
+
+    @Override
+    public void detachAll() {
+        sql().detachAll();
+    }
+
+    @Override
+    public Passenger save(Passenger entity) {
+        Passenger saved = sql().save(entity);
+        events.publishEvent(new PassengersChanged(List.of(saved.getId())));
+        return saved;
+    }
+
+    @Override
+    public <S extends Passenger> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = sql().saveAll(entities);
+        events.publishEvent(new PassengersChanged(saved.stream().map(Passenger::getId).toList()));
+        return saved;
+    }
+
+    @Override
+    public void flush() {
+        sql().flush();
+    }
+
+    @Override
+    public void delete(Passenger entity) {
+        sql().delete(entity);
+        events.publishEvent(new PassengersChanged(List.of(entity.getId())));
+    }
+
+    private PassengerRepository sql() {
+        return sqlPassengerRepository;
+    }
+}
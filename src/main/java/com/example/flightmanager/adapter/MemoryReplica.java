@@ -0,0 +1,432 @@
+package com.example.flightmanager.adapter;
+
+import com.example.flightmanager.model.Flight;
+import com.example.flightmanager.model.Passenger;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectRBTreeMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectSortedMap;
+import it.unimi.dsi.fastutil.ints.IntRBTreeSet;
+import it.unimi.dsi.fastutil.ints.IntSortedSet;
+import org.hibernate.Hibernate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+@Profile("memory-replica")
+class MemoryReplica {
+    private static final Map<String, Comparator<Flight>> FLIGHT_ORDER = Map.of(
+            "id", Comparator.comparingInt(Flight::getId),
+            "number", Comparator.comparingInt(Flight::getNumber),
+            "route", Comparator.comparing(Flight::getRoute),
+            "origin", Comparator.comparing(Flight::getOrigin),
+            "destination", Comparator.comparing(Flight::getDestination),
+            "departure", Comparator.comparing(Flight::getDeparture),
+            "availableSeats", Comparator.comparingInt(Flight::getAvailableSeats));
+    private static final Map<String, Comparator<Passenger>> PASSENGER_ORDER = Map.of(
+            "id", Comparator.comparingInt(Passenger::getId),
+            "name", Comparator.comparing(Passenger::getName),
+            "surname", Comparator.comparing(Passenger::getSurname),
+            "phone", Comparator.comparing(Passenger::getPhone));
+
+    private final SqlFlightRepository sqlFlightRepository;
+    private final SqlPassengerRepository sqlPassengerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Int2ObjectSortedMap<Flight> flights = new Int2ObjectRBTreeMap<>();
+    private final Int2ObjectSortedMap<Passenger> passengers = new Int2ObjectRBTreeMap<>();
+    private final NavigableMap<DepartureKey, Flight> flightsByDeparture = new TreeMap<>();
+    private final NavigableMap<String, IntSortedSet> flightsByOrigin = new TreeMap<>();
+    private final NavigableMap<String, IntSortedSet> flightsByDestination = new TreeMap<>();
+    private final Int2ObjectMap<IntSortedSet> flightsByPassenger = new Int2ObjectOpenHashMap<>();
+    private final AtomicLong reloads = new AtomicLong();
+    private final Int2LongMap flightReloads = new Int2LongOpenHashMap();
+    private final Int2LongMap passengerReloads = new Int2LongOpenHashMap();
+    private volatile boolean loaded;
+
+    MemoryReplica(SqlFlightRepository sqlFlightRepository, SqlPassengerRepository sqlPassengerRepository, PlatformTransactionManager transactionManager) {
+        this.sqlFlightRepository = sqlFlightRepository;
+        this.sqlPassengerRepository = sqlPassengerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void load() {
+        long reload = reloads.incrementAndGet();
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Integer, Flight> allFlights = sqlFlightRepository.findAll().stream()
+                    .collect(Collectors.toMap(Flight::getId, Function.identity()));
+            Map<Integer, Passenger> allPassengers = sqlPassengerRepository.findAll().stream()
+                    .collect(Collectors.toMap(Passenger::getId, Function.identity()));
+            write(() -> {
+                for (int id : passengers.keySet().toIntArray()) {
+                    if (!allPassengers.containsKey(id) && passengerReloads.get(id) < reload) {
+                        passengers.remove(id);
+                    }
+                }
+                for (int id : flights.keySet().toIntArray()) {
+                    if (!allFlights.containsKey(id) && flightReloads.get(id) < reload) {
+                        unindex(id);
+                    }
+                }
+                allPassengers.forEach((id, passenger) -> replacePassenger(id, passenger, reload));
+                allFlights.forEach((id, flight) -> replaceFlight(id, flight, reload));
+            });
+        });
+        loaded = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onFlightsChanged(FlightsChanged event) {
+        long reload = reloads.incrementAndGet();
+        Map<Integer, Flight> fresh = transactionTemplate.execute(status -> {
+            List<Flight> found = sqlFlightRepository.findAllById(event.ids());
+            found.forEach(flight -> Hibernate.initialize(flight.getPassengers()));
+            return found.stream().collect(Collectors.toMap(Flight::getId, Function.identity()));
+        });
+        write(() -> event.ids().forEach(id -> replaceFlight(id, fresh.get(id), reload)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onPassengersChanged(PassengersChanged event) {
+        long reload = reloads.incrementAndGet();
+        Map<Integer, Passenger> fresh = transactionTemplate.execute(status -> sqlPassengerRepository.findAllById(event.ids()).stream()
+                .collect(Collectors.toMap(Passenger::getId, Function.identity())));
+        IntSortedSet affectedFlights = new IntRBTreeSet();
+        write(() -> event.ids().forEach(id -> {
+            IntSortedSet flightIds = flightsByPassenger.get((int) id);
+            if (flightIds != null) {
+                affectedFlights.addAll(flightIds);
+            }
+            replacePassenger(id, fresh.get(id), reload);
+        }));
+        if (!affectedFlights.isEmpty()) {
+            onFlightsChanged(new FlightsChanged(affectedFlights));
+        }
+    }
+
+    boolean serves() {
+        return loaded && (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    boolean servesFlights(Pageable pageable) {
+        return serves() && pageable.getSort().stream().allMatch(order -> FLIGHT_ORDER.containsKey(order.getProperty()));
+    }
+
+    boolean servesPassengers(Pageable pageable) {
+        return serves() && pageable.getSort().stream().allMatch(order -> PASSENGER_ORDER.containsKey(order.getProperty()));
+    }
+
+    Optional<Flight> flight(int id) {
+        return read(() -> Optional.ofNullable(flights.get(id)));
+    }
+
+    List<Flight> flights() {
+        return read(() -> new ArrayList<>(flights.values()));
+    }
+
+    Slice<Flight> flights(Pageable pageable) {
+        return read(() -> byDeparture(pageable.getSort())
+                ? page(flightsByDeparture.values().stream(), pageable)
+                : slice(flights.values().stream(), pageable, FLIGHT_ORDER));
+    }
+
+    List<Flight> flightsByDepartureAfter(LocalDateTime departure, int id, int limit) {
+        return read(() -> flightsByDeparture.tailMap(new DepartureKey(departure, id), false).values().stream()
+                .limit(limit)
+                .toList());
+    }
+
+    List<Flight> flightsByDeparture(int limit) {
+        return read(() -> flightsByDeparture.values().stream().limit(limit).toList());
+    }
+
+    Slice<Flight> flightsByRoute(String route, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable) {
+        return read(() -> {
+            if (byDeparture(pageable.getSort())) {
+                return page(departingBetween(departureAfter, departureBefore)
+                        .filter(flight -> flight.getRoute().contains(route) && flight.getAvailableSeats() >= availableSeats), pageable);
+            }
+            return slice(routeCandidates(route)
+                            .filter(flight -> flight.getRoute().contains(route))
+                            .filter(flight -> flight.getDeparture().isAfter(departureAfter) && flight.getDeparture().isBefore(departureBefore)
+                                    && flight.getAvailableSeats() >= availableSeats),
+                    pageable, FLIGHT_ORDER);
+        });
+    }
+
+    Slice<Flight> flightsByOriginAndDestination(String origin, String destination, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable) {
+        return read(() -> {
+            IntSortedSet ids = withPrefix(flightsByOrigin, origin);
+            ids.retainAll(withPrefix(flightsByDestination, destination));
+            if (byDeparture(pageable.getSort())) {
+                return page(departingBetween(departureAfter, departureBefore)
+                        .filter(flight -> ids.contains(flight.getId()) && flight.getAvailableSeats() >= availableSeats), pageable);
+            }
+            return slice(ids.intStream().mapToObj(flights::get)
+                            .filter(flight -> flight.getDeparture().isAfter(departureAfter) && flight.getDeparture().isBefore(departureBefore)
+                                    && flight.getAvailableSeats() >= availableSeats),
+                    pageable, FLIGHT_ORDER);
+        });
+    }
+
+    Slice<Passenger> passengersOfFlight(int flightId, Pageable pageable) {
+        return read(() -> {
+            Flight flight = flights.get(flightId);
+            Stream<Passenger> onBoard = flight == null ? Stream.empty() : flight.getPassengers().stream();
+            return slice(onBoard.sorted(PASSENGER_ORDER.get("id")), pageable, PASSENGER_ORDER);
+        });
+    }
+
+    Slice<Flight> flightsOfPassenger(int passengerId, Pageable pageable) {
+        return read(() -> {
+            IntSortedSet ids = flightsByPassenger.get(passengerId);
+            Stream<Flight> booked = ids == null ? Stream.empty() : ids.intStream().mapToObj(flights::get);
+            return slice(booked, pageable, FLIGHT_ORDER);
+        });
+    }
+
+    boolean containsPassenger(int flightId, int passengerId) {
+        return read(() -> {
+            IntSortedSet ids = flightsByPassenger.get(passengerId);
+            return ids != null && ids.contains(flightId);
+        });
+    }
+
+    Optional<String> flightVersionTag(int id) {
+        return flight(id).map(flight -> flight.getVersion() + "-" + flight.getPassengers().size() + "-"
+                + flight.getPassengers().stream().mapToLong(Passenger::getVersion).sum());
+    }
+
+    String flightsVersionTag() {
+        return read(() -> flights.size() + "-" + (flights.isEmpty() ? 0 : flights.lastIntKey()) + "-"
+                + flights.values().stream().mapToLong(Flight::getVersion).sum());
+    }
+
+    Optional<Passenger> passenger(int id) {
+        return read(() -> Optional.ofNullable(passengers.get(id)));
+    }
+
+    List<Passenger> passengers() {
+        return read(() -> new ArrayList<>(passengers.values()));
+    }
+
+    List<Passenger> passengers(Iterable<Integer> ids) {
+        return read(() -> {
+            List<Passenger> found = new ArrayList<>();
+            ids.forEach(id -> {
+                Passenger passenger = passengers.get((int) id);
+                if (passenger != null) {
+                    found.add(passenger);
+                }
+            });
+            return found;
+        });
+    }
+
+    Slice<Passenger> passengers(Pageable pageable) {
+        return read(() -> slice(passengers.values().stream(), pageable, PASSENGER_ORDER));
+    }
+
+    List<Passenger> passengersAfter(int id, int limit) {
+        return read(() -> passengers.tailMap(id + 1).values().stream().limit(limit).toList());
+    }
+
+    String passengersVersionTag() {
+        return read(() -> passengers.size() + "-" + (passengers.isEmpty() ? 0 : passengers.lastIntKey()) + "-"
+                + passengers.values().stream().mapToLong(Passenger::getVersion).sum());
+    }
+
+    private Stream<Flight> routeCandidates(String route) {
+        if (route.isEmpty() || route.indexOf(' ') >= 0 || route.indexOf('-') >= 0) {
+            return flights.values().stream();
+        }
+        IntSortedSet ids = new IntRBTreeSet();
+        Stream.of(flightsByOrigin, flightsByDestination).forEach(index -> index.forEach((token, tokenIds) -> {
+            if (token.contains(route)) {
+                ids.addAll(tokenIds);
+            }
+        }));
+        return ids.intStream().mapToObj(flights::get);
+    }
+
+    private Stream<Flight> departingBetween(LocalDateTime departureAfter, LocalDateTime departureBefore) {
+        if (!departureAfter.isBefore(departureBefore)) {
+            return Stream.empty();
+        }
+        return flightsByDeparture.subMap(new DepartureKey(departureAfter, Integer.MAX_VALUE), false,
+                new DepartureKey(departureBefore, Integer.MIN_VALUE), false).values().stream();
+    }
+
+    private static IntSortedSet withPrefix(NavigableMap<String, IntSortedSet> index, String prefix) {
+        IntSortedSet ids = new IntRBTreeSet();
+        index.tailMap(prefix, true).entrySet().stream()
+                .takeWhile(entry -> entry.getKey().startsWith(prefix))
+                .forEach(entry -> ids.addAll(entry.getValue()));
+        return ids;
+    }
+
+    private void replaceFlight(int id, Flight flight, long reload) {
+        if (flightReloads.get(id) > reload) {
+            return;
+        }
+        flightReloads.put(id, reload);
+        unindex(id);
+        if (flight != null) {
+            index(flight);
+        }
+    }
+
+    private void replacePassenger(int id, Passenger passenger, long reload) {
+        if (passengerReloads.get(id) > reload) {
+            return;
+        }
+        passengerReloads.put(id, reload);
+        if (passenger != null) {
+            passengers.put(id, passenger);
+        } else {
+            passengers.remove(id);
+        }
+    }
+
+    private void index(Flight flight) {
+        int id = flight.getId();
+        flights.put(id, flight);
+        flightsByDeparture.put(new DepartureKey(flight.getDeparture(), id), flight);
+        addToIndex(flightsByOrigin, flight.getOrigin(), id);
+        addToIndex(flightsByDestination, flight.getDestination(), id);
+        flight.getPassengers().forEach(passenger -> {
+            IntSortedSet ids = flightsByPassenger.get(passenger.getId());
+            if (ids == null) {
+                ids = new IntRBTreeSet();
+                flightsByPassenger.put(passenger.getId(), ids);
+            }
+            ids.add(id);
+        });
+    }
+
+    private void unindex(int id) {
+        Flight flight = flights.remove(id);
+        if (flight == null) {
+            return;
+        }
+        flightsByDeparture.remove(new DepartureKey(flight.getDeparture(), id));
+        removeFromIndex(flightsByOrigin, flight.getOrigin(), id);
+        removeFromIndex(flightsByDestination, flight.getDestination(), id);
+        flight.getPassengers().forEach(passenger -> {
+            IntSortedSet ids = flightsByPassenger.get(passenger.getId());
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                flightsByPassenger.remove(passenger.getId());
+            }
+        });
+    }
+
+    private static void addToIndex(NavigableMap<String, IntSortedSet> index, String token, int id) {
+        index.computeIfAbsent(token, key -> new IntRBTreeSet()).add(id);
+    }
+
+    private static void removeFromIndex(NavigableMap<String, IntSortedSet> index, String token, int id) {
+        IntSortedSet ids = index.get(token);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(token);
+        }
+    }
+
+    private static <T> Comparator<T> order(Sort sort, Map<String, Comparator<T>> orders) {
+        Comparator<T> comparator = (left, right) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<T> next = orders.get(order.getProperty());
+            comparator = comparator.thenComparing(order.isDescending() ? next.reversed() : next);
+        }
+        return comparator.thenComparing(orders.get("id"));
+    }
+
+    private static boolean byId(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        return orders.isEmpty() || orders.size() == 1 && isAscending(orders.get(0), "id");
+    }
+
+    private static boolean byDeparture(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        return !orders.isEmpty() && orders.size() <= 2 && isAscending(orders.get(0), "departure")
+                && (orders.size() == 1 || isAscending(orders.get(1), "id"));
+    }
+
+    private static boolean isAscending(Sort.Order order, String property) {
+        return order.getProperty().equals(property) && order.isAscending();
+    }
+
+    private static <T> Slice<T> slice(Stream<T> byId, Pageable pageable, Map<String, Comparator<T>> orders) {
+        return page(byId(pageable.getSort()) ? byId : byId.sorted(order(pageable.getSort(), orders)), pageable);
+    }
+
+    private static <T> Slice<T> page(Stream<T> ordered, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(ordered.toList());
+        }
+        List<T> content = new ArrayList<>(ordered.skip(pageable.getOffset()).limit(pageable.getPageSize() + 1L).toList());
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content.remove(content.size() - 1);
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private <T> T read(Supplier<T> query) {
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record DepartureKey(LocalDateTime departure, int id) implements Comparable<DepartureKey> {
+        @Override
+        public int compareTo(DepartureKey other) {
+            int byDeparture = departure.compareTo(other.departure);
+            return byDeparture != 0 ? byDeparture : Integer.compare(id, other.id);
+        }
+    }
+}
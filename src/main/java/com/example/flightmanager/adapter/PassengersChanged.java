@@ -0,0 +1,6 @@
+package com.example.flightmanager.adapter;
+
+import java.util.Collection;
+
+record PassengersChanged(Collection<Integer> ids) {
+}
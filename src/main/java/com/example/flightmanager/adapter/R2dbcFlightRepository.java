@@ -0,0 +1,78 @@
+package com.example.flightmanager.adapter;
+
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.repository.ReactiveFlightRepository;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+class R2dbcFlightRepository implements ReactiveFlightRepository {
+    private static final String SELECT_SUMMARY = "select f.id, f.number, f.route, f.departure, f.available_seats,"
+            + " (select count(*) from flights_passengers fp where fp.flight_id = f.id) as passenger_count from flights f";
+    private static final Map<String, String> SORTABLE = Map.of(
+            "id", "id",
+            "number", "number",
+            "route", "route",
+            "origin", "origin",
+            "destination", "destination",
+            "departure", "departure",
+            "availableSeats", "available_seats");
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Flux<FlightSummaryDTO> findAllSummaries(Pageable pageable) {
+        return databaseClient.sql(SELECT_SUMMARY + R2dbcQueries.orderBy(pageable.getSort(), SORTABLE, "id") + R2dbcQueries.limit(pageable))
+                .map(R2dbcFlightRepository::toSummary)
+                .all();
+    }
+
+    @Override
+    public Flux<FlightSummaryDTO> findSummariesByRoute(String route, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable) {
+        return databaseClient.sql(SELECT_SUMMARY
+                        + " where route like :route escape '\\' and departure > :departureAfter and departure < :departureBefore"
+                        + " and available_seats >= :seats"
+                        + R2dbcQueries.orderBy(pageable.getSort(), SORTABLE, "departure, id") + R2dbcQueries.limit(pageable))
+                .bind("route", "%" + R2dbcQueries.likeEscaped(route) + "%")
+                .bind("departureAfter", departureAfter)
+                .bind("departureBefore", departureBefore)
+                .bind("seats", availableSeats)
+                .map(R2dbcFlightRepository::toSummary)
+                .all();
+    }
+
+    @Override
+    public Flux<FlightSummaryDTO> findSummariesByOriginAndDestination(String origin, String destination, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable) {
+        return databaseClient.sql(SELECT_SUMMARY
+                        + " where origin like :origin escape '\\' and destination like :destination escape '\\'"
+                        + " and departure > :departureAfter and departure < :departureBefore and available_seats >= :seats"
+                        + R2dbcQueries.orderBy(pageable.getSort(), SORTABLE, "departure, id") + R2dbcQueries.limit(pageable))
+                .bind("origin", R2dbcQueries.likeEscaped(origin) + "%")
+                .bind("destination", R2dbcQueries.likeEscaped(destination) + "%")
+                .bind("departureAfter", departureAfter)
+                .bind("departureBefore", departureBefore)
+                .bind("seats", availableSeats)
+                .map(R2dbcFlightRepository::toSummary)
+                .all();
+    }
+
+    private static FlightSummaryDTO toSummary(Readable row) {
+        return new FlightSummaryDTO(
+                row.get("id", Integer.class),
+                row.get("number", Integer.class),
+                row.get("route", String.class),
+                row.get("departure", LocalDateTime.class),
+                row.get("available_seats", Integer.class),
+                row.get("passenger_count", Long.class).intValue());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.flightmanager.adapter;
+
+import com.example.flightmanager.dto.PassengerDTO;
+import com.example.flightmanager.repository.ReactivePassengerRepository;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+class R2dbcPassengerRepository implements ReactivePassengerRepository {
+    private static final String SELECT_PASSENGER = "select id, name, surname, phone from passengers";
+    private static final Map<String, String> SORTABLE = Map.of(
+            "id", "id",
+            "name", "name",
+            "surname", "surname",
+            "phone", "phone");
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Flux<PassengerDTO> findAll(Pageable pageable) {
+        return databaseClient.sql(SELECT_PASSENGER + R2dbcQueries.orderBy(pageable.getSort(), SORTABLE, "id") + R2dbcQueries.limit(pageable))
+                .map(R2dbcPassengerRepository::toDto)
+                .all();
+    }
+
+    @Override
+    public Mono<PassengerDTO> findById(int id) {
+        return databaseClient.sql(SELECT_PASSENGER + " where id = :id")
+                .bind("id", id)
+                .map(R2dbcPassengerRepository::toDto)
+                .one();
+    }
+
+    private static PassengerDTO toDto(Readable row) {
+        return new PassengerDTO(
+                row.get("id", Integer.class),
+                row.get("name", String.class),
+                row.get("surname", String.class),
+                row.get("phone", String.class));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.flightmanager.adapter;
+
+import com.example.flightmanager.exception.InvalidSortException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+final class R2dbcQueries {
+
+    private R2dbcQueries() {
+    }
+
+    static String limit(Pageable pageable) {
+        return pageable.isPaged() ? " limit " + pageable.getPageSize() + " offset " + pageable.getOffset() : "";
+    }
+
+    static String orderBy(Sort sort, Map<String, String> columns, String defaultOrder) {
+        if (sort.isUnsorted()) {
+            return " order by " + defaultOrder;
+        }
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String column = columns.get(order.getProperty());
+            if (column == null) {
+                throw new InvalidSortException("Cannot sort by " + order.getProperty() + ", allowed: " + String.join(", ", new TreeSet<>(columns.keySet())));
+            }
+            orders.add(column + (order.isDescending() ? " desc" : ""));
+        }
+        if (sort.getOrderFor("id") == null) {
+            orders.add("id");
+        }
+        return " order by " + String.join(", ", orders);
+    }
+
+    static String likeEscaped(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
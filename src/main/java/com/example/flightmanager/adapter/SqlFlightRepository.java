@@ -1,8 +1,127 @@
 package com.example.flightmanager.adapter;
 
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.dto.PassengerDTO;
+import com.example.flightmanager.dto.RouteCountDTO;
 import com.example.flightmanager.model.Flight;
 import com.example.flightmanager.repository.FlightRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-interface SqlFlightRepository extends FlightRepository, JpaRepository<Flight, Integer> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+interface SqlFlightRepository extends FlightRepository, JpaRepository<Flight, Integer>, DetachableRepository {
+
+    @Override
+    @EntityGraph(attributePaths = "passengers")
+    List<Flight> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "passengers")
+    List<Flight> findAllById(Iterable<Integer> ids);
+
+    @Override
+    @Query("select f from Flight f order by f.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Flight> streamAll();
+
+    @Override
+    @Query("select new com.example.flightmanager.dto.FlightSummaryDTO(f.id, f.number, f.route, f.departure, f.availableSeats, size(f.passengers)) from Flight f")
+    List<FlightSummaryDTO> findAllSummaries();
+
+    @Override
+    @Query("select new com.example.flightmanager.dto.FlightSummaryDTO(f.id, f.number, f.route, f.departure, f.availableSeats, size(f.passengers)) from Flight f")
+    Slice<FlightSummaryDTO> findAllSummaries(Pageable pageable);
+
+    @Override
+    @Query("select new com.example.flightmanager.dto.FlightSummaryDTO(f.id, f.number, f.route, f.departure, f.availableSeats, size(f.passengers)) from Flight f where f.id in :ids")
+    List<FlightSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Override
+    @Query("select new com.example.flightmanager.dto.FlightSummaryDTO(f.id, f.number, f.route, f.departure, f.availableSeats, size(f.passengers)) from Flight f where f.departure > :departure")
+    List<FlightSummaryDTO> findSummariesByDepartureAfter(@Param("departure") LocalDateTime departure);
+
+    @Override
+    @Query("select new com.example.flightmanager.dto.RouteCountDTO(f.route, count(f)) from Flight f group by f.route")
+    List<RouteCountDTO> findRouteCounts();
+
+    @Override
+    @Query("select new com.example.flightmanager.dto.FlightSummaryDTO(f.id, f.number, f.route, f.departure, f.availableSeats, size(f.passengers)) from Flight f where f.route like %:#{escape(#route)}% escape :#{escapeCharacter()} and f.departure > :departureAfter and f.departure < :departureBefore and f.availableSeats >= :availableSeats")
+    Slice<FlightSummaryDTO> findSummariesByRoute(@Param("route") String route, @Param("departureAfter") LocalDateTime departureAfter, @Param("departureBefore") LocalDateTime departureBefore, @Param("availableSeats") int availableSeats, Pageable pageable);
+
+    @Override
+    @Query("select new com.example.flightmanager.dto.FlightSummaryDTO(f.id, f.number, f.route, f.departure, f.availableSeats, size(f.passengers)) from Flight f where f.origin like :#{escape(#origin)}% escape :#{escapeCharacter()} and f.destination like :#{escape(#destination)}% escape :#{escapeCharacter()} and f.departure > :departureAfter and f.departure < :departureBefore and f.availableSeats >= :availableSeats")
+    Slice<FlightSummaryDTO> findSummariesByOriginAndDestination(@Param("origin") String origin, @Param("destination") String destination, @Param("departureAfter") LocalDateTime departureAfter, @Param("departureBefore") LocalDateTime departureBefore, @Param("availableSeats") int availableSeats, Pageable pageable);
+
+    @Override
+    @Query("select new com.example.flightmanager.dto.PassengerDTO(p.id, p.name, p.surname, p.phone) from Passenger p where p.id in (select booked.id from Flight f join f.passengers booked where f.id = :flightId)")
+    Slice<PassengerDTO> findPassengersByFlightId(@Param("flightId") int flightId, Pageable pageable);
+
+    @Override
+    @Query("select new com.example.flightmanager.dto.FlightSummaryDTO(f.id, f.number, f.route, f.departure, f.availableSeats, size(f.passengers)) from Flight f join f.passengers p where p.id = :passengerId")
+    Slice<FlightSummaryDTO> findSummariesByPassengerId(@Param("passengerId") int passengerId, Pageable pageable);
+
+    @Override
+    @Query("select f from Flight f order by f.departure, f.id")
+    List<Flight> findFirstKeysetPage(Pageable pageable);
+
+    @Override
+    @Query("select f from Flight f where f.departure > :departure or (f.departure = :departure and f.id > :id) order by f.departure, f.id")
+    List<Flight> findKeysetPageAfter(@Param("departure") LocalDateTime departure, @Param("id") int id, Pageable pageable);
+
+    @Override
+    @Query("select concat(str(f.version), '-', str(count(p)), '-', str(coalesce(sum(p.version), 0))) from Flight f left join f.passengers p where f.id = :id group by f.id, f.version")
+    Optional<String> findVersionTagById(@Param("id") int id);
+
+    @Override
+    @Query("select concat(str(count(f)), '-', str(coalesce(max(f.id), 0)), '-', str(coalesce(sum(f.version), 0))) from Flight f")
+    String findVersionTag();
+
+    @Override
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Flight f set f.availableSeats = f.availableSeats - :seats, f.version = f.version + 1 where f.id = :flightId and f.availableSeats >= :seats")
+    int reserveSeats(@Param("flightId") int flightId, @Param("seats") int seats);
+
+    @Override
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Flight f set f.availableSeats = f.availableSeats + 1, f.version = f.version + 1 where f.id = :flightId")
+    int releaseSeat(@Param("flightId") int flightId);
+
+    @Override
+    @Query(value = "select count(*) > 0 from flights_passengers where flight_id = :flightId and passenger_id = :passengerId", nativeQuery = true)
+    boolean containsPassenger(@Param("flightId") int flightId, @Param("passengerId") int passengerId);
+
+    @Override
+    @Query(value = "select passenger_id from flights_passengers where flight_id = :flightId and passenger_id in (:passengerIds)", nativeQuery = true)
+    List<Integer> findPassengerIdsOnFlight(@Param("flightId") int flightId, @Param("passengerIds") Collection<Integer> passengerIds);
+
+    @Override
+    @Modifying
+    @Query(value = "insert into flights_passengers (flight_id, passenger_id) values (:flightId, :passengerId)", nativeQuery = true)
+    int insertPassenger(@Param("flightId") int flightId, @Param("passengerId") int passengerId);
+
+    @Override
+    @Modifying
+    @Query(value = "insert into flights_passengers (flight_id, passenger_id) select f.id, p.id from flights f, passengers p where f.id = :flightId and p.id in (:passengerIds)", nativeQuery = true)
+    int insertPassengers(@Param("flightId") int flightId, @Param("passengerIds") Collection<Integer> passengerIds);
+
+    @Override
+    @Modifying
+    @Query(value = "delete from flights_passengers where flight_id = :flightId and passenger_id = :passengerId", nativeQuery = true)
+    int removePassenger(@Param("flightId") int flightId, @Param("passengerId") int passengerId);
 }
@@ -2,7 +2,51 @@ package com.example.flightmanager.adapter;
 
 import com.example.flightmanager.model.Passenger;
 import com.example.flightmanager.repository.PassengerRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-interface SqlPassengerRepository extends PassengerRepository, JpaRepository<Passenger, Integer> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+interface SqlPassengerRepository extends PassengerRepository, JpaRepository<Passenger, Integer>, DetachableRepository {
+
+    @Override
+    @Query("select p from Passenger p order by p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Passenger> streamAll();
+
+    @Override
+    @Query("select p from Passenger p where p.normalizedPhone = :phone and p.normalizedSurname like :#{escape(#surname)}% escape :#{escapeCharacter()} and p.normalizedName like :#{escape(#name)}% escape :#{escapeCharacter()} order by p.id")
+    Slice<Passenger> findByPhoneAndNamePrefix(@Param("phone") String phone, @Param("surname") String surname, @Param("name") String name, Pageable pageable);
+
+    @Override
+    @Query("select p from Passenger p where p.normalizedSurname like :#{escape(#surname)}% escape :#{escapeCharacter()} and p.normalizedName like :#{escape(#name)}% escape :#{escapeCharacter()} order by p.normalizedSurname, p.normalizedName, p.id")
+    Slice<Passenger> findByNamePrefix(@Param("surname") String surname, @Param("name") String name, Pageable pageable);
+
+    @Override
+    @Query("select p from Passenger p where p.normalizedName like :#{escape(#name)}% escape :#{escapeCharacter()} order by p.normalizedName, p.normalizedSurname, p.id")
+    Slice<Passenger> findByFirstNamePrefix(@Param("name") String name, Pageable pageable);
+
+    @Override
+    @Query("select p.fingerprint from Passenger p where p.fingerprint in :fingerprints")
+    List<String> findFingerprintsIn(@Param("fingerprints") Collection<String> fingerprints);
+
+    @Override
+    @Query("select p.version from Passenger p where p.id = :id")
+    Optional<Integer> findVersionById(@Param("id") int id);
+
+    @Override
+    @Query("select concat(str(count(p)), '-', str(coalesce(max(p.id), 0)), '-', str(coalesce(sum(p.version), 0))) from Passenger p")
+    String findVersionTag();
 }
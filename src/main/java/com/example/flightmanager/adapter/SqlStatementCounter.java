@@ -0,0 +1,55 @@
+package com.example.flightmanager.adapter;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer, TaskDecorator {
+    private final ThreadLocal<AtomicInteger> statements = new ThreadLocal<>();
+
+    public AtomicInteger start() {
+        AtomicInteger count = new AtomicInteger();
+        statements.set(count);
+        return count;
+    }
+
+    public void stop() {
+        statements.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger count = statements.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+        return sql;
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        AtomicInteger count = statements.get();
+        if (count == null) {
+            return runnable;
+        }
+        return () -> {
+            statements.set(count);
+            try {
+                runnable.run();
+            } finally {
+                statements.remove();
+            }
+        };
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+}
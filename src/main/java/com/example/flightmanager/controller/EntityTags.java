@@ -0,0 +1,11 @@
+package com.example.flightmanager.controller;
+
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    static String weak(String version) {
+        return "W/\"" + version + "\"";
+    }
+}
@@ -1,9 +1,14 @@
 package com.example.flightmanager.controller;
 
+import com.example.flightmanager.exception.BookingJournalFullException;
 import com.example.flightmanager.exception.DuplicatePassengerException;
 import com.example.flightmanager.exception.FlightNotFoundException;
+import com.example.flightmanager.exception.InvalidCursorException;
+import com.example.flightmanager.exception.InvalidImportException;
+import com.example.flightmanager.exception.InvalidSortException;
 import com.example.flightmanager.exception.NoAvailableSeatsException;
 import com.example.flightmanager.exception.PassengerNotFoundException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -11,6 +16,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.HashMap;
@@ -39,6 +45,31 @@ public class ExceptionControllerAdvice {
         return ResponseEntity.badRequest().body(getMessage(e.getMessage()));
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    ResponseEntity<Map<String, String>> handleInvalidCursor(InvalidCursorException e) {
+        return ResponseEntity.badRequest().body(getMessage(e.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidSortException.class)
+    ResponseEntity<Map<String, String>> handleInvalidSort(InvalidSortException e) {
+        return ResponseEntity.badRequest().body(getMessage(e.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidImportException.class)
+    ResponseEntity<Map<String, String>> handleInvalidImport(InvalidImportException e) {
+        return ResponseEntity.badRequest().body(getMessage(e.getMessage()));
+    }
+
+    @ExceptionHandler(BookingJournalFullException.class)
+    ResponseEntity<Map<String, String>> handleBookingJournalFull(BookingJournalFullException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(getMessage(e.getMessage()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    ResponseEntity<Map<String, String>> handleConcurrentModification(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(getMessage("The resource was modified concurrently, please retry."));
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     ResponseEntity<Map<String, String>> handleIncorrectValue(MethodArgumentTypeMismatchException e) {
         return ResponseEntity.badRequest().body(getMessage(e.getMessage()));
@@ -61,6 +92,14 @@ public class ExceptionControllerAdvice {
         return ResponseEntity.badRequest().body(errors);
     }
 
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    ResponseEntity<Map<String, String>> handleValidation(HandlerMethodValidationException e) {
+        Map<String, String> errors = new HashMap<>();
+        e.getAllValidationResults().forEach(result -> result.getResolvableErrors().forEach(error ->
+                errors.put(result.getMethodParameter().getParameterName(), error.getDefaultMessage())));
+        return ResponseEntity.badRequest().body(errors);
+    }
+
     Map<String, String> getMessage(String errorMessage) {
         Map<String, String> message = new HashMap<>();
         message.put("error", errorMessage);
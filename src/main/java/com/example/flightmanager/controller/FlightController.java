@@ -1,21 +1,38 @@
 package com.example.flightmanager.controller;
 
+import com.example.flightmanager.dto.BookingResultDTO;
+import com.example.flightmanager.dto.CursorPageDTO;
+import com.example.flightmanager.dto.FlightBookingDTO;
 import com.example.flightmanager.dto.FlightDTO;
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.dto.ImportResultDTO;
+import com.example.flightmanager.dto.PassengerDTO;
 import com.example.flightmanager.model.Flight;
 import com.example.flightmanager.service.FlightService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.List;
 
 
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 @RequestMapping("/flights")
 @Tag(name = "Flights")
@@ -23,6 +40,8 @@ public class FlightController {
 
 
     private final FlightService flightService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final ImportReader importReader;
 
     @PostMapping
     public ResponseEntity<FlightDTO> addNewFlight(@RequestBody @Valid FlightDTO flightDTO) {
@@ -30,21 +49,69 @@ public class FlightController {
         return ResponseEntity.created(URI.create("/" + result.id())).body(result);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, ImportReader.TEXT_CSV_VALUE})
+    public ImportResultDTO importFlights(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) {
+        return flightService.importFlights(importReader.read(body, contentType, FlightDTO.class));
+    }
+
     @GetMapping(params = {"!sort", "!page", "!size"})
-    public List<FlightDTO> readAllFlights() {
+    public List<FlightSummaryDTO> readAllFlightSummaries(WebRequest request) {
+        if (request.checkNotModified(EntityTags.weak(flightService.getFlightsVersionTag()))) {
+            return null;
+        }
+        return flightService.readAllFlightSummaries();
+    }
+
+    @GetMapping(params = {"expand=passengers", "!sort", "!page", "!size"})
+    public List<FlightDTO> readAllFlights(WebRequest request) {
+        if (request.checkNotModified(EntityTags.weak(flightService.getFlightsWithPassengersVersionTag()))) {
+            return null;
+        }
         return flightService.readAllFlights();
     }
 
+    @GetMapping(params = {"!sort", "!page", "!size"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportFlights() {
+        return ndjsonStreamer.<FlightDTO>stream(flightService::exportFlights);
+    }
+
     @GetMapping
+    public List<FlightSummaryDTO> readAllFlightSummaries(Pageable page) {
+        return flightService.readAllFlightSummaries(page);
+    }
+
+    @GetMapping(params = "expand=passengers")
     public List<FlightDTO> readAllFlights(Pageable page) {
         return flightService.readAllFlights(page);
     }
 
+    @GetMapping("/scroll")
+    public CursorPageDTO<FlightDTO> scrollFlights(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(1000) int size) {
+        return flightService.readFlightsAfter(cursor, size);
+    }
+
+    @GetMapping("/routes/suggest")
+    public List<String> suggestRoutes(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int limit) {
+        return flightService.suggestRoutes(prefix, limit);
+    }
+
     @GetMapping("/{id}")
-    public FlightDTO findFlightById(@PathVariable int id) {
+    public FlightDTO findFlightById(@PathVariable int id, WebRequest request) {
+        if (request.checkNotModified(EntityTags.weak(flightService.getFlightVersionTag(id)))) {
+            return null;
+        }
         return flightService.getFlightDto(id);
     }
 
+    @GetMapping("/{id}/passengers")
+    public List<PassengerDTO> readFlightPassengers(@PathVariable int id, @PageableDefault(size = 20) Pageable page) {
+        return flightService.readFlightPassengers(id, page);
+    }
+
     @PutMapping("/{id}")
     public FlightDTO updateFlight(@PathVariable int id, @RequestBody @Valid Flight toUpdate) {
         return flightService.updateFlight(id, toUpdate);
@@ -55,6 +122,16 @@ public class FlightController {
         return flightService.addPassenger(flightId, passengerId);
     }
 
+    @PatchMapping("/add/{flightId}")
+    public List<BookingResultDTO> addPassengersToFlight(@PathVariable int flightId, @RequestBody @NotEmpty List<Integer> passengerIds) {
+        return flightService.addPassengers(flightId, passengerIds);
+    }
+
+    @PatchMapping("/add")
+    public List<BookingResultDTO> addPassengersToFlights(@RequestBody @NotEmpty List<@Valid FlightBookingDTO> bookings) {
+        return flightService.addPassengers(bookings);
+    }
+
     @PatchMapping("/delete/{flightId}/{passengerId}")
     public FlightDTO deletePassengerFromFlight(@PathVariable int flightId, @PathVariable int passengerId) {
         return flightService.deletePassenger(flightId, passengerId);
@@ -67,10 +144,26 @@ public class FlightController {
     }
 
     @GetMapping("/search")
+    public List<FlightSummaryDTO> searchFlightSummaries(
+            @RequestParam(required = false) String route,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) LocalDateTime departure,
+            @RequestParam(required = false) LocalDateTime departureBefore,
+            @RequestParam(required = false) Integer availableSeats,
+            @PageableDefault(size = 20, sort = "departure") Pageable page) {
+        return flightService.searchSummaries(route, origin, destination, departure, departureBefore, availableSeats, page);
+    }
+
+    @GetMapping(value = "/search", params = "expand=passengers")
     public List<FlightDTO> searchFlights(
             @RequestParam(required = false) String route,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
             @RequestParam(required = false) LocalDateTime departure,
-            @RequestParam(required = false) Integer availableSeats) {
-        return flightService.search(route, departure, availableSeats);
+            @RequestParam(required = false) LocalDateTime departureBefore,
+            @RequestParam(required = false) Integer availableSeats,
+            @PageableDefault(size = 20, sort = "departure") Pageable page) {
+        return flightService.search(route, origin, destination, departure, departureBefore, availableSeats, page);
     }
 }
@@ -0,0 +1,58 @@
+package com.example.flightmanager.controller;
+
+import com.example.flightmanager.exception.InvalidImportException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+@Component
+@RequiredArgsConstructor
+class ImportReader {
+    static final String TEXT_CSV_VALUE = "text/csv";
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = CsvMapper.builder().addModule(new JavaTimeModule()).build();
+
+    <T> Iterator<T> read(InputStream body, MediaType contentType, Class<T> type) {
+        try {
+            MappingIterator<T> rows = TEXT_CSV.isCompatibleWith(contentType)
+                    ? csvMapper.readerFor(type).with(CsvSchema.emptySchema().withHeader()).readValues(body)
+                    : objectMapper.readerFor(type).readValues(body);
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    try {
+                        return rows.hasNextValue();
+                    } catch (IOException e) {
+                        throw invalidRow(rows, e);
+                    }
+                }
+
+                @Override
+                public T next() {
+                    try {
+                        return rows.nextValue();
+                    } catch (IOException e) {
+                        throw invalidRow(rows, e);
+                    }
+                }
+            };
+        } catch (IOException e) {
+            throw new InvalidImportException("Import could not be read: " + e.getMessage());
+        }
+    }
+
+    private static InvalidImportException invalidRow(MappingIterator<?> rows, IOException e) {
+        return new InvalidImportException("Row at line " + rows.getCurrentLocation().getLineNr() + " is not valid: " + e.getMessage());
+    }
+}
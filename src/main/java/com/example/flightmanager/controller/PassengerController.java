@@ -1,27 +1,51 @@
 package com.example.flightmanager.controller;
 
+import com.example.flightmanager.dto.CursorPageDTO;
+import com.example.flightmanager.dto.DeduplicationResultDTO;
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.dto.ImportResultDTO;
 import com.example.flightmanager.dto.PassengerDTO;
 import com.example.flightmanager.model.Passenger;
+import com.example.flightmanager.service.FlightService;
+import com.example.flightmanager.service.PassengerDeduplication;
 import com.example.flightmanager.service.PassengerService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/passengers")
 @Tag(name = "Passengers")
 public class PassengerController {
 
     private final PassengerService passengerService;
+    private final FlightService flightService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final ImportReader importReader;
+    private final PassengerDeduplication passengerDeduplication;
 
-    public PassengerController(PassengerService passengerService) {
+    public PassengerController(PassengerService passengerService, FlightService flightService, NdjsonStreamer ndjsonStreamer, ImportReader importReader, PassengerDeduplication passengerDeduplication) {
         this.passengerService = passengerService;
+        this.flightService = flightService;
+        this.ndjsonStreamer = ndjsonStreamer;
+        this.importReader = importReader;
+        this.passengerDeduplication = passengerDeduplication;
     }
 
     @PostMapping
@@ -30,21 +54,68 @@ public class PassengerController {
         return ResponseEntity.created(URI.create("/" + result.id())).body(result);
     }
 
+    @PostMapping(params = "upsert=true")
+    public PassengerDTO upsertPassenger(@RequestBody @Valid PassengerDTO passengerDTO) {
+        return passengerService.upsertPassenger(passengerDTO);
+    }
+
+    @PostMapping("/deduplicate")
+    public DeduplicationResultDTO deduplicatePassengers() {
+        return passengerDeduplication.mergeDuplicates();
+    }
+
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, ImportReader.TEXT_CSV_VALUE})
+    public ImportResultDTO importPassengers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) {
+        return passengerService.importPassengers(importReader.read(body, contentType, PassengerDTO.class));
+    }
+
     @GetMapping(params = {"!sort", "!page", "!size"})
-    public List<PassengerDTO> readAllPassengers() {
+    public List<PassengerDTO> readAllPassengers(WebRequest request) {
+        if (request.checkNotModified(EntityTags.weak(passengerService.getPassengersVersionTag()))) {
+            return null;
+        }
         return passengerService.readAllPassengers();
     }
 
+    @GetMapping(params = {"!sort", "!page", "!size"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPassengers() {
+        return ndjsonStreamer.<PassengerDTO>stream(passengerService::exportPassengers);
+    }
+
     @GetMapping
     public List<PassengerDTO> readAllPassengers(Pageable page) {
         return passengerService.readAllPassengers(page);
     }
 
+    @GetMapping("/scroll")
+    public CursorPageDTO<PassengerDTO> scrollPassengers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(1000) int size) {
+        return passengerService.readPassengersAfter(cursor, size);
+    }
+
+    @GetMapping("/search")
+    public List<PassengerDTO> searchPassengers(
+            @RequestParam(required = false) String phone,
+            @RequestParam(required = false) String surname,
+            @RequestParam(required = false) String name,
+            @PageableDefault(size = 20) Pageable page) {
+        return passengerService.search(phone, surname, name, page);
+    }
+
     @GetMapping("/{id}")
-    public PassengerDTO findPassengerById(@PathVariable int id) {
+    public PassengerDTO findPassengerById(@PathVariable int id, WebRequest request) {
+        if (request.checkNotModified(EntityTags.weak(passengerService.getPassengerVersionTag(id)))) {
+            return null;
+        }
         return passengerService.getPassengerDto(id);
     }
 
+    @GetMapping("/{id}/flights")
+    public List<FlightSummaryDTO> readPassengerFlights(@PathVariable int id, @PageableDefault(size = 20, sort = "departure") Pageable page) {
+        return flightService.readPassengerFlights(id, page);
+    }
+
     @PutMapping("/{id}")
     public PassengerDTO updatePassenger(@PathVariable int id, @RequestBody @Valid Passenger toUpdate) {
         return passengerService.updatePassenger(id, toUpdate);
@@ -0,0 +1,43 @@
+package com.example.flightmanager.controller;
+
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.service.ReactiveFlightService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping("/flights")
+@Tag(name = "Flights")
+public class ReactiveFlightController {
+
+    private final ReactiveFlightService flightService;
+
+    @GetMapping
+    public Flux<FlightSummaryDTO> readAllFlightSummaries(Pageable page) {
+        return flightService.readAllFlightSummaries(page);
+    }
+
+    @GetMapping("/search")
+    public Flux<FlightSummaryDTO> searchFlights(
+            @RequestParam(required = false) String route,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) LocalDateTime departure,
+            @RequestParam(required = false) LocalDateTime departureBefore,
+            @RequestParam(required = false) Integer availableSeats,
+            @PageableDefault(size = 20) Pageable page) {
+        return flightService.search(route, origin, destination, departure, departureBefore, availableSeats, page);
+    }
+}
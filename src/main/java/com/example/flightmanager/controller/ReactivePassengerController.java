@@ -0,0 +1,34 @@
+package com.example.flightmanager.controller;
+
+import com.example.flightmanager.dto.PassengerDTO;
+import com.example.flightmanager.service.ReactivePassengerService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping("/passengers")
+@Tag(name = "Passengers")
+public class ReactivePassengerController {
+
+    private final ReactivePassengerService passengerService;
+
+    @GetMapping
+    public Flux<PassengerDTO> readAllPassengers(Pageable page) {
+        return passengerService.readAllPassengers(page);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<PassengerDTO> findPassengerById(@PathVariable int id) {
+        return passengerService.getPassengerDto(id);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.flightmanager.controller;
+
+import com.example.flightmanager.dto.BookingResultDTO;
+import com.example.flightmanager.service.BookingPipeline;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Profile("write-behind & !reactive")
+@RequiredArgsConstructor
+@RequestMapping("/flights")
+@Tag(name = "Flights")
+public class WriteBehindBookingController {
+
+    private final BookingPipeline bookingPipeline;
+
+    @PatchMapping(value = "/add/{flightId}/{passengerId}", headers = "Prefer=respond-async")
+    public ResponseEntity<BookingResultDTO> addPassengerToFlight(@PathVariable int flightId, @PathVariable int passengerId) {
+        bookingPipeline.book(flightId, passengerId);
+        return ResponseEntity.accepted()
+                .header("Preference-Applied", "respond-async")
+                .body(BookingResultDTO.booked(flightId, passengerId));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.flightmanager.dto;
+
+public record BookingResultDTO(
+        int flightId,
+        int passengerId,
+        boolean booked,
+        String error) {
+
+    public static BookingResultDTO booked(int flightId, int passengerId) {
+        return new BookingResultDTO(flightId, passengerId, true, null);
+    }
+
+    public static BookingResultDTO rejected(int flightId, int passengerId, String error) {
+        return new BookingResultDTO(flightId, passengerId, false, error);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.flightmanager.dto;
+
+import java.util.List;
+
+public record CursorPageDTO<T>(
+        List<T> content,
+        String nextCursor) {
+}
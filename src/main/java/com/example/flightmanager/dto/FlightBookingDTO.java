@@ -0,0 +1,11 @@
+package com.example.flightmanager.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record FlightBookingDTO(
+        int flightId,
+        @NotEmpty(message = "Passenger ids cannot be empty.")
+        List<Integer> passengerIds) {
+}
@@ -0,0 +1,12 @@
+package com.example.flightmanager.dto;
+
+import java.time.LocalDateTime;
+
+public record FlightSummaryDTO(
+        int id,
+        int number,
+        String route,
+        LocalDateTime departure,
+        int availableSeats,
+        int passengerCount) {
+}
@@ -0,0 +1,9 @@
+package com.example.flightmanager.dto;
+
+import java.util.List;
+
+public record ImportResultDTO(
+        long imported,
+        long rejected,
+        List<String> errors) {
+}
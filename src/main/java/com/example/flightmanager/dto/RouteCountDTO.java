@@ -0,0 +1,6 @@
+package com.example.flightmanager.dto;
+
+public record RouteCountDTO(
+        String route,
+        long flights) {
+}
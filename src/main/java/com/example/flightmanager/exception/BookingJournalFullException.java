@@ -0,0 +1,7 @@
+package com.example.flightmanager.exception;
+
+public class BookingJournalFullException extends RuntimeException {
+    public BookingJournalFullException() {
+        super("Booking queue is full, please retry later.");
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.flightmanager.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException() {
+        super("Invalid cursor");
+    }
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.flightmanager.exception;
+
+public class InvalidImportException extends RuntimeException {
+    public InvalidImportException() {
+        super("Invalid import");
+    }
+
+    public InvalidImportException(String message) {
+        super(message);
+    }
+}
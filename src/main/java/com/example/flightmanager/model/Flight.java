@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.Set;
@@ -15,27 +16,47 @@ import java.util.Set;
 @NoArgsConstructor
 @EqualsAndHashCode
 @Entity
-@Table(name = "flights")
+@Table(name = "flights", indexes = {
+        @Index(name = "idx_flights_route_departure_seats", columnList = "route, departure, available_seats"),
+        @Index(name = "idx_flights_origin_destination_departure", columnList = "origin, destination, departure"),
+        @Index(name = "idx_flights_departure_id", columnList = "departure, id")
+})
 public class Flight {
+    private static final String ROUTE_SEPARATOR = " - ";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "flights_seq")
+    @SequenceGenerator(name = "flights_seq", sequenceName = "flights_seq", allocationSize = 50)
     @Setter(AccessLevel.NONE)
     private int id;
+    @Version
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private int version;
     @Min(value = 1, message = "Flight number must be greater than 0.")
     private int number;
     @NotBlank(message = "Route cannot be an empty field.")
     private String route;
+    @Setter(AccessLevel.NONE)
+    private String origin;
+    @Setter(AccessLevel.NONE)
+    private String destination;
     @Future(message = "Must be a future date.")
     @NotNull
     private LocalDateTime departure;
     @Min(value = 0, message = "Available seats must not be less than 0.")
     private int availableSeats;
     @ManyToMany
+    @BatchSize(size = 100)
+    @JoinTable(name = "flights_passengers",
+            joinColumns = @JoinColumn(name = "flight_id"),
+            inverseJoinColumns = @JoinColumn(name = "passenger_id"),
+            indexes = @Index(name = "idx_flights_passengers_passenger", columnList = "passenger_id"))
     private Set<Passenger> passengers;
 
     public Flight(int number, String route, LocalDateTime departure, int availableSeats, Set<Passenger> passengers) {
         this.number = number;
-        this.route = route;
+        setRoute(route);
         this.departure = departure;
         this.availableSeats = availableSeats;
         this.passengers = passengers;
@@ -43,11 +64,24 @@ public class Flight {
 
     public void flightUpdate(final Flight source) {
         number = source.number;
-        route = source.route;
+        setRoute(source.route);
         departure = source.departure;
         availableSeats = source.availableSeats;
     }
 
+    public void setRoute(String route) {
+        this.route = route;
+        if (route == null) {
+            origin = null;
+            destination = null;
+            return;
+        }
+        String separator = route.contains(ROUTE_SEPARATOR) ? ROUTE_SEPARATOR : "-";
+        String[] parts = route.split(separator, 2);
+        origin = parts[0].trim();
+        destination = parts.length > 1 ? parts[1].trim() : "";
+    }
+
     public void addPassenger(Passenger passenger) {
         passengers.add(passenger);
         availableSeats--;
@@ -61,8 +95,4 @@ public class Flight {
     public boolean checkAvailableSeats() {
         return availableSeats < 1;
     }
-
-    public boolean checkForPassengerInFlight(Passenger passenger) {
-        return passengers.contains(passenger);
-    }
 }
\ No newline at end of file
@@ -1,36 +1,99 @@
 package com.example.flightmanager.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 
+import java.util.Locale;
+
 @Getter
 @Setter
 @NoArgsConstructor
 @EqualsAndHashCode
 @Entity
-@Table(name = "passengers")
+@Table(name = "passengers", indexes = {
+        @Index(name = "idx_passengers_phone", columnList = "normalized_phone"),
+        @Index(name = "idx_passengers_surname_name", columnList = "normalized_surname, normalized_name, id"),
+        @Index(name = "idx_passengers_name_surname", columnList = "normalized_name, normalized_surname, id"),
+        @Index(name = "uk_passengers_fingerprint", columnList = "fingerprint", unique = true)
+})
 public class Passenger {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "passengers_seq")
+    @SequenceGenerator(name = "passengers_seq", sequenceName = "passengers_seq", allocationSize = 50)
     @Setter(AccessLevel.NONE)
     private int id;
+    @Version
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private int version;
     @NotBlank(message = "Name cannot be an empty field.")
     private String name;
     @NotBlank(message = "Surname cannot be an empty field.")
     private String surname;
     @NotBlank(message = "Phone cannot be an empty field.")
     private String phone;
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private String normalizedName;
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private String normalizedSurname;
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private String normalizedPhone;
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private String fingerprint;
 
     public Passenger(String name, String surname, String phone) {
+        setName(name);
+        setSurname(surname);
+        setPhone(phone);
+    }
+
+    public void passengerUpdate(final Passenger source) {
+        setName(source.name);
+        setSurname(source.surname);
+        setPhone(source.phone);
+    }
+
+    public void normalize() {
+        passengerUpdate(this);
+    }
+
+    public void setName(String name) {
         this.name = name;
+        normalizedName = normalizeName(name);
+        fingerprint = fingerprint(name, surname, phone);
+    }
+
+    public void setSurname(String surname) {
         this.surname = surname;
+        normalizedSurname = normalizeName(surname);
+        fingerprint = fingerprint(name, surname, phone);
+    }
+
+    public void setPhone(String phone) {
         this.phone = phone;
+        normalizedPhone = normalizePhone(phone);
+        fingerprint = fingerprint(name, surname, phone);
     }
 
-    public void passengerUpdate(final Passenger source) {
-        name = source.name;
-        surname = source.surname;
-        phone = source.phone;
+    public static String fingerprint(String name, String surname, String phone) {
+        if (name == null || surname == null || phone == null) {
+            return null;
+        }
+        return normalizeName(name) + "|" + normalizeName(surname) + "|" + normalizePhone(phone);
+    }
+
+    public static String normalizeName(String name) {
+        return name != null ? name.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    public static String normalizePhone(String phone) {
+        return phone != null ? phone.replaceAll("[^0-9]", "") : null;
     }
 }
@@ -0,0 +1,15 @@
+package com.example.flightmanager.repository;
+
+import java.util.List;
+
+public interface BookingJournal {
+
+    void append(int flightId, int passengerId);
+
+    List<Entry> pending(int limit);
+
+    void markFlushed(int count);
+
+    record Entry(int flightId, int passengerId) {
+    }
+}
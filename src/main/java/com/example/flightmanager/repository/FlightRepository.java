@@ -1,24 +1,81 @@
 package com.example.flightmanager.repository;
 
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.dto.PassengerDTO;
+import com.example.flightmanager.dto.RouteCountDTO;
 import com.example.flightmanager.model.Flight;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface FlightRepository {
 
     List<Flight> findAll();
 
-    Page<Flight> findAll(Pageable pageable);
+    Slice<Flight> findAllBy(Pageable pageable);
+
+    List<Flight> findFirstKeysetPage(Pageable pageable);
+
+    List<Flight> findKeysetPageAfter(LocalDateTime departure, int id, Pageable pageable);
+
+    List<FlightSummaryDTO> findAllSummaries();
+
+    Slice<FlightSummaryDTO> findAllSummaries(Pageable pageable);
+
+    List<FlightSummaryDTO> findSummariesByIdIn(Collection<Integer> ids);
+
+    List<FlightSummaryDTO> findSummariesByDepartureAfter(LocalDateTime departure);
+
+    List<RouteCountDTO> findRouteCounts();
+
+    Slice<FlightSummaryDTO> findSummariesByRoute(String route, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable);
+
+    Slice<FlightSummaryDTO> findSummariesByOriginAndDestination(String origin, String destination, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable);
+
+    Slice<PassengerDTO> findPassengersByFlightId(int flightId, Pageable pageable);
+
+    Slice<FlightSummaryDTO> findSummariesByPassengerId(int passengerId, Pageable pageable);
 
     Optional<Flight> findById(Integer id);
 
+    List<Flight> findAllById(Iterable<Integer> ids);
+
+    Optional<String> findVersionTagById(int id);
+
+    String findVersionTag();
+
+    Stream<Flight> streamAll();
+
+    void detachAll();
+
     Flight save(Flight entity);
 
+    <S extends Flight> List<S> saveAll(Iterable<S> entities);
+
+    void flush();
+
     void delete(Flight entity);
 
-    List<Flight> findByRouteContainingAndDepartureAfterAndAvailableSeatsGreaterThanEqual(String route, LocalDateTime departure, int availableSeats);
+    Slice<Flight> findByRouteContainingAndDepartureAfterAndDepartureBeforeAndAvailableSeatsGreaterThanEqual(String route, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable);
+
+    Slice<Flight> findByOriginStartingWithAndDestinationStartingWithAndDepartureAfterAndDepartureBeforeAndAvailableSeatsGreaterThanEqual(String origin, String destination, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable);
+
+    int reserveSeats(int flightId, int seats);
+
+    int releaseSeat(int flightId);
+
+    boolean containsPassenger(int flightId, int passengerId);
+
+    List<Integer> findPassengerIdsOnFlight(int flightId, Collection<Integer> passengerIds);
+
+    int insertPassenger(int flightId, int passengerId);
+
+    int insertPassengers(int flightId, Collection<Integer> passengerIds);
+
+    int removePassenger(int flightId, int passengerId);
 }
@@ -1,20 +1,50 @@
 package com.example.flightmanager.repository;
 
 import com.example.flightmanager.model.Passenger;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PassengerRepository {
     List<Passenger> findAll();
 
-    Page<Passenger> findAll(Pageable pageable);
+    Slice<Passenger> findAllBy(Pageable pageable);
+
+    List<Passenger> findByIdGreaterThanOrderByIdAsc(int id, Pageable pageable);
+
+    List<Passenger> findByFingerprintIsNullAndIdGreaterThanOrderByIdAsc(int id, Pageable pageable);
+
+    Optional<Passenger> findByFingerprint(String fingerprint);
+
+    List<String> findFingerprintsIn(Collection<String> fingerprints);
 
     Optional<Passenger> findById(Integer id);
 
+    Slice<Passenger> findByPhoneAndNamePrefix(String phone, String surname, String name, Pageable pageable);
+
+    Slice<Passenger> findByNamePrefix(String surname, String name, Pageable pageable);
+
+    Slice<Passenger> findByFirstNamePrefix(String name, Pageable pageable);
+
+    Optional<Integer> findVersionById(int id);
+
+    String findVersionTag();
+
+    List<Passenger> findAllById(Iterable<Integer> ids);
+
+    Stream<Passenger> streamAll();
+
+    void detachAll();
+
     Passenger save(Passenger entity);
 
+    <S extends Passenger> List<S> saveAll(Iterable<S> entities);
+
+    void flush();
+
     void delete(Passenger entity);
 }
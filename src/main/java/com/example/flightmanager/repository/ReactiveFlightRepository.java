@@ -0,0 +1,15 @@
+package com.example.flightmanager.repository;
+
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+public interface ReactiveFlightRepository {
+    Flux<FlightSummaryDTO> findAllSummaries(Pageable pageable);
+
+    Flux<FlightSummaryDTO> findSummariesByRoute(String route, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable);
+
+    Flux<FlightSummaryDTO> findSummariesByOriginAndDestination(String origin, String destination, LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable);
+}
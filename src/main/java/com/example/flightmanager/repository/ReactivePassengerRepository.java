@@ -0,0 +1,12 @@
+package com.example.flightmanager.repository;
+
+import com.example.flightmanager.dto.PassengerDTO;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactivePassengerRepository {
+    Flux<PassengerDTO> findAll(Pageable pageable);
+
+    Mono<PassengerDTO> findById(int id);
+}
@@ -0,0 +1,81 @@
+package com.example.flightmanager.service;
+
+import com.example.flightmanager.dto.ImportResultDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+final class BatchImport {
+    static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private BatchImport() {
+    }
+
+    static <D, E> ImportResultDTO run(Iterator<D> rows, Function<D, E> mapper, Validator validator, Consumer<List<E>> writer) {
+        return run(rows, mapper, validator, entity -> null, keys -> List.of(), key -> "", writer);
+    }
+
+    static <D, E, K> ImportResultDTO run(Iterator<D> rows, Function<D, E> mapper, Validator validator,
+                                         Function<E, K> key, Function<Collection<K>, Collection<K>> storedKeys,
+                                         Function<K, String> duplicateError, Consumer<List<E>> writer) {
+        List<E> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Long> chunkRows = new ArrayList<>(CHUNK_SIZE);
+        List<String> errors = new ArrayList<>();
+        long imported = 0;
+        long rejected = 0;
+        long row = 0;
+        while (rows.hasNext()) {
+            row++;
+            E entity = mapper.apply(rows.next());
+            Set<ConstraintViolation<E>> violations = validator.validate(entity);
+            if (violations.isEmpty()) {
+                chunk.add(entity);
+                chunkRows.add(row);
+            } else {
+                rejected++;
+                report(errors, row, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(" ")));
+            }
+            if (chunk.size() == CHUNK_SIZE || !chunk.isEmpty() && !rows.hasNext()) {
+                List<K> keys = chunk.stream().map(key).filter(Objects::nonNull).toList();
+                Set<K> seen = new HashSet<>(keys.isEmpty() ? List.of() : storedKeys.apply(keys));
+                List<E> unique = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    K k = key.apply(chunk.get(i));
+                    if (k == null || seen.add(k)) {
+                        unique.add(chunk.get(i));
+                    } else {
+                        rejected++;
+                        report(errors, chunkRows.get(i), duplicateError.apply(k));
+                    }
+                }
+                if (!unique.isEmpty()) {
+                    writer.accept(unique);
+                    imported += unique.size();
+                }
+                chunk.clear();
+                chunkRows.clear();
+            }
+        }
+        return new ImportResultDTO(imported, rejected, errors);
+    }
+
+    private static void report(List<String> errors, long row, String error) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("Row " + row + ": " + error);
+        }
+    }
+}
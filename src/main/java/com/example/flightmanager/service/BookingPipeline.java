@@ -0,0 +1,236 @@
+package com.example.flightmanager.service;
+
+import com.example.flightmanager.CacheConfig;
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.exception.BookingJournalFullException;
+import com.example.flightmanager.exception.DuplicatePassengerException;
+import com.example.flightmanager.exception.FlightNotFoundException;
+import com.example.flightmanager.exception.NoAvailableSeatsException;
+import com.example.flightmanager.repository.BookingJournal;
+import com.example.flightmanager.repository.FlightRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+@Service
+@Profile("write-behind")
+public class BookingPipeline {
+    static final String PENDING_METRIC = "flights.bookings.pending";
+    static final String DROPPED_METRIC = "flights.bookings.dropped";
+    static final String FLUSH_FAILURES_METRIC = "flights.bookings.flush.failures";
+
+    private final FlightRepository flightRepository;
+    private final PassengerService passengerService;
+    private final BookingJournal bookingJournal;
+    private final PendingBookings pendingBookings;
+    private final DepartureIndex departureIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache flightsCache;
+    private final Counter dropped;
+    private final Counter flushFailures;
+    private final int batchSize;
+    private final Map<Integer, Seats> seats = new ConcurrentHashMap<>();
+    private final Set<BookingJournal.Entry> replayed = new HashSet<>();
+    private final ScheduledExecutorService batcher = Executors.newSingleThreadScheduledExecutor();
+
+    public BookingPipeline(FlightRepository flightRepository,
+                           PassengerService passengerService,
+                           BookingJournal bookingJournal,
+                           PendingBookings pendingBookings,
+                           DepartureIndex departureIndex,
+                           PlatformTransactionManager transactionManager,
+                           CacheManager cacheManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${flight-manager.booking-journal.batch-size}") int batchSize,
+                           @Value("${flight-manager.booking-journal.flush-interval}") Duration flushInterval) {
+        this.flightRepository = flightRepository;
+        this.passengerService = passengerService;
+        this.bookingJournal = bookingJournal;
+        this.pendingBookings = pendingBookings;
+        this.departureIndex = departureIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flightsCache = cacheManager.getCache(CacheConfig.FLIGHTS);
+        this.dropped = meterRegistry.counter(DROPPED_METRIC);
+        this.flushFailures = meterRegistry.counter(FLUSH_FAILURES_METRIC);
+        this.batchSize = batchSize;
+        meterRegistry.gauge(PENDING_METRIC, pendingBookings, PendingBookings::size);
+        bookingJournal.pending(Integer.MAX_VALUE).forEach(entry -> {
+            pendingBookings.add(entry.flightId(), entry.passengerId());
+            replayed.add(entry);
+        });
+        batcher.scheduleWithFixedDelay(this::flushInBackground, 0, flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void book(int flightId, int passengerId) {
+        Seats flightSeats = seats.computeIfAbsent(flightId, this::seed);
+        passengerService.getPassengerDto(passengerId);
+        if (!pendingBookings.add(flightId, passengerId)) {
+            throw new DuplicatePassengerException("Passenger with id = " + passengerId + " is already added to flight number LO" + flightSeats.number + ".");
+        }
+        if (!flightSeats.take()) {
+            pendingBookings.remove(flightId, passengerId);
+            throw new NoAvailableSeatsException("No available seats on flight number LO" + flightSeats.number + ".");
+        }
+        try {
+            bookingJournal.append(flightId, passengerId);
+        } catch (BookingJournalFullException e) {
+            flightSeats.release();
+            pendingBookings.remove(flightId, passengerId);
+            throw e;
+        }
+    }
+
+    synchronized void flush() {
+        List<BookingJournal.Entry> batch;
+        while (!(batch = bookingJournal.pending(batchSize)).isEmpty()) {
+            apply(batch);
+            Set<Integer> flightIds = batch.stream().map(BookingJournal.Entry::flightId).collect(toSet());
+            flightRepository.findSummariesByIdIn(flightIds).forEach(flight -> {
+                Seats flightSeats = seats.get(flight.id());
+                if (flightSeats != null) {
+                    flightSeats.sync(flight.availableSeats());
+                }
+            });
+            flightIds.forEach(flightsCache::evict);
+            departureIndex.changed(flightIds);
+        }
+    }
+
+    private void flushInBackground() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        batcher.shutdown();
+        batcher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    private synchronized Seats seed(int flightId) {
+        FlightSummaryDTO flight = flightRepository.findSummariesByIdIn(List.of(flightId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new FlightNotFoundException("Flight with id = " + flightId + " not found"));
+        return new Seats(flight.number(), flight.availableSeats(), pendingBookings.count(flightId));
+    }
+
+    private void apply(List<BookingJournal.Entry> batch) {
+        Map<Integer, List<Integer>> byFlight = batch.stream()
+                .collect(groupingBy(BookingJournal.Entry::flightId, TreeMap::new, mapping(BookingJournal.Entry::passengerId, toList())));
+        try {
+            transactionTemplate.executeWithoutResult(status -> byFlight.forEach((flightId, passengerIds) -> {
+                if (flightRepository.reserveSeats(flightId, passengerIds.size()) == 0) {
+                    throw new NoAvailableSeatsException("No available seats on flight with id = " + flightId + ".");
+                }
+                if (flightRepository.insertPassengers(flightId, passengerIds) != passengerIds.size()) {
+                    throw new DataIntegrityViolationException("Passengers of flight " + flightId + " could not be inserted");
+                }
+            }));
+        } catch (DataIntegrityViolationException | NoAvailableSeatsException e) {
+            batch.forEach(entry -> {
+                boolean applied = applyOne(entry);
+                bookingJournal.markFlushed(1);
+                settle(entry, applied);
+            });
+            return;
+        }
+        bookingJournal.markFlushed(batch.size());
+        batch.forEach(entry -> settle(entry, true));
+    }
+
+    private boolean applyOne(BookingJournal.Entry entry) {
+        if (replayed.contains(entry) && flightRepository.containsPassenger(entry.flightId(), entry.passengerId())) {
+            return true;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (flightRepository.reserveSeats(entry.flightId(), 1) == 0) {
+                    throw new NoAvailableSeatsException("No available seats on flight with id = " + entry.flightId() + ".");
+                }
+                flightRepository.insertPassenger(entry.flightId(), entry.passengerId());
+            });
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            if (!flightRepository.containsPassenger(entry.flightId(), entry.passengerId())) {
+                dropped.increment();
+            }
+        } catch (NoAvailableSeatsException e) {
+            dropped.increment();
+        }
+        return false;
+    }
+
+    private void settle(BookingJournal.Entry entry, boolean applied) {
+        replayed.remove(entry);
+        Seats flightSeats = seats.get(entry.flightId());
+        if (flightSeats != null) {
+            flightSeats.settle(applied);
+        }
+        pendingBookings.remove(entry.flightId(), entry.passengerId());
+    }
+
+    private static final class Seats {
+        private final int number;
+        private int available;
+        private int pending;
+
+        Seats(int number, int stored, int pending) {
+            this.number = number;
+            this.pending = pending;
+            this.available = Math.max(stored - pending, 0);
+        }
+
+        synchronized boolean take() {
+            if (available == 0) {
+                return false;
+            }
+            available--;
+            pending++;
+            return true;
+        }
+
+        synchronized void release() {
+            available++;
+            pending--;
+        }
+
+        synchronized void settle(boolean applied) {
+            pending--;
+            if (!applied) {
+                available++;
+            }
+        }
+
+        synchronized void sync(int stored) {
+            available = Math.max(stored - pending, 0);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.flightmanager.service;
+
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.repository.FlightRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class DepartureIndex {
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::departure).thenComparingInt(Key::id);
+
+    private final FlightRepository flightRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration reloadInterval;
+    private final NavigableMap<Key, FlightSummaryDTO> flights = new ConcurrentSkipListMap<>(KEY_ORDER);
+    private final Map<Integer, Key> keys = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reloader = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicLong reads = new AtomicLong();
+    private final Map<Integer, Long> refreshedAt = new HashMap<>();
+    private long loadedAt;
+    private volatile LocalDateTime expiredBefore = LocalDateTime.MAX;
+
+    public DepartureIndex(FlightRepository flightRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${flight-manager.departure-index.enabled}") boolean enabled,
+                          @Value("${flight-manager.departure-index.reload-interval}") Duration reloadInterval) {
+        this.flightRepository = flightRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.reloadInterval = reloadInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            load();
+            reloader.scheduleWithFixedDelay(this::reloadInBackground, reloadInterval.toMillis(), reloadInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reloader.shutdownNow();
+    }
+
+    public void load() {
+        long read = reads.incrementAndGet();
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, FlightSummaryDTO> upcoming = transactionTemplate.execute(status -> flightRepository.findSummariesByDepartureAfter(now).stream()
+                .collect(Collectors.toMap(FlightSummaryDTO::id, Function.identity())));
+        synchronized (this) {
+            upcoming.values().stream()
+                    .filter(flight -> isLatest(flight.id(), read))
+                    .forEach(this::put);
+            Set.copyOf(keys.keySet()).stream()
+                    .filter(id -> !upcoming.containsKey(id) && isLatest(id, read))
+                    .forEach(this::remove);
+            refreshedAt.values().removeIf(refreshed -> refreshed < read);
+            loadedAt = read;
+            expiredBefore = now;
+        }
+    }
+
+    private void reloadInBackground() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.warn("Reloading the departure index failed, keeping the previous state", e);
+        }
+    }
+
+    public boolean serves(LocalDateTime departureAfter, Pageable pageable) {
+        return !departureAfter.isBefore(expiredBefore) && sortedByDeparture(pageable.getSort());
+    }
+
+    public List<FlightSummaryDTO> departing(LocalDateTime departureAfter, LocalDateTime departureBefore, int availableSeats, Pageable pageable) {
+        expire(LocalDateTime.now().isBefore(departureAfter) ? LocalDateTime.now() : departureAfter);
+        if (!departureAfter.isBefore(departureBefore)) {
+            return List.of();
+        }
+        return flights.subMap(new Key(departureAfter, Integer.MAX_VALUE), false, new Key(departureBefore, Integer.MIN_VALUE), false).values().stream()
+                .filter(flight -> flight.availableSeats() >= availableSeats)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    public void changed(int flightId) {
+        changed(List.of(flightId));
+    }
+
+    public void changed(Collection<Integer> flightIds) {
+        AfterCommit.run(() -> refresh(flightIds));
+    }
+
+    private void refresh(Collection<Integer> flightIds) {
+        if (expiredBefore == LocalDateTime.MAX || flightIds.isEmpty()) {
+            return;
+        }
+        try {
+            long read = reads.incrementAndGet();
+            Map<Integer, FlightSummaryDTO> found = transactionTemplate.execute(status -> flightRepository.findSummariesByIdIn(Set.copyOf(flightIds)).stream()
+                    .collect(Collectors.toMap(FlightSummaryDTO::id, Function.identity())));
+            synchronized (this) {
+                flightIds.stream().filter(id -> isLatest(id, read)).forEach(id -> {
+                    refreshedAt.put(id, read);
+                    FlightSummaryDTO flight = found.get(id);
+                    if (flight != null && flight.departure().isAfter(expiredBefore)) {
+                        put(flight);
+                    } else {
+                        remove(id);
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            log.warn("Refreshing flights {} in the departure index failed, keeping them until the next reload", flightIds, e);
+        }
+    }
+
+    private boolean isLatest(int flightId, long read) {
+        return read > loadedAt && read > refreshedAt.getOrDefault(flightId, 0L);
+    }
+
+    private synchronized void expire(LocalDateTime before) {
+        if (!before.isAfter(expiredBefore)) {
+            return;
+        }
+        NavigableMap<Key, FlightSummaryDTO> departed = flights.headMap(new Key(before, Integer.MAX_VALUE), true);
+        departed.keySet().forEach(key -> keys.remove(key.id()));
+        departed.clear();
+        expiredBefore = before;
+    }
+
+    private void put(FlightSummaryDTO flight) {
+        Key key = new Key(flight.departure(), flight.id());
+        flights.put(key, flight);
+        Key previous = keys.put(flight.id(), key);
+        if (previous != null && !previous.equals(key)) {
+            flights.remove(previous);
+        }
+    }
+
+    private void remove(int flightId) {
+        Key key = keys.remove(flightId);
+        if (key != null) {
+            flights.remove(key);
+        }
+    }
+
+    private static boolean sortedByDeparture(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        return orders.isEmpty()
+                || orders.size() == 1 && orders.get(0).getProperty().equals("departure") && orders.get(0).isAscending();
+    }
+
+    private record Key(LocalDateTime departure, int id) {
+    }
+}
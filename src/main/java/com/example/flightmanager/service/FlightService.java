@@ -1,109 +1,366 @@
 package com.example.flightmanager.service;
 
+import com.example.flightmanager.CacheConfig;
+import com.example.flightmanager.dto.BookingResultDTO;
+import com.example.flightmanager.dto.CursorPageDTO;
+import com.example.flightmanager.dto.FlightBookingDTO;
 import com.example.flightmanager.dto.FlightDTO;
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.dto.ImportResultDTO;
+import com.example.flightmanager.dto.PassengerDTO;
 import com.example.flightmanager.exception.DuplicatePassengerException;
 import com.example.flightmanager.exception.FlightNotFoundException;
+import com.example.flightmanager.exception.InvalidCursorException;
+import com.example.flightmanager.exception.InvalidSortException;
 import com.example.flightmanager.exception.NoAvailableSeatsException;
 import com.example.flightmanager.exception.PassengerNotFoundException;
 import com.example.flightmanager.mapper.FlightMapper;
 import com.example.flightmanager.model.Flight;
 import com.example.flightmanager.model.Passenger;
 import com.example.flightmanager.repository.FlightRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class FlightService {
+    static final LocalDateTime LATEST_DEPARTURE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final List<String> FLIGHT_SORT = List.of("availableSeats", "departure", "destination", "id", "number", "origin", "route");
+    private static final List<String> PASSENGER_SORT = List.of("id", "name", "phone", "surname");
 
     private final FlightRepository flightRepository;
     private final PassengerService passengerService;
     private final FlightMapper flightMapper;
+    private final SeatReservationService seatReservationService;
+    private final Validator validator;
+    private final DepartureIndex departureIndex;
+    private final RouteIndex routeIndex;
+    private final PendingBookings pendingBookings;
 
     @Transactional
     public FlightDTO addFlight(FlightDTO flightDTO) {
         Flight flight = flightRepository.save(flightMapper.dtoToEntity(flightDTO));
+        departureIndex.changed(flight.getId());
+        routeIndex.added(flight.getRoute());
         return flightMapper.entityToDto(flight);
     }
 
+    @Timed(value = "flights.bookings", extraTags = {"operation", "add"}, histogram = true)
+    @Counted(value = "flights.bookings.rejected", extraTags = {"operation", "add"}, recordFailuresOnly = true)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.FLIGHTS, key = "#flightId")
     public FlightDTO addPassenger(int flightId, int passengerId) {
         Flight flight = getFlight(flightId);
         Passenger passenger = passengerService.getPassenger(passengerId);
 
         validateFlightForAddPassenger(flight, passenger);
 
-        flight.addPassenger(passenger);
-        flightRepository.save(flight);
-        return flightMapper.entityToDto(flight);
+        seatReservationService.reserve(flight, passenger);
+        departureIndex.changed(flightId);
+        return flightMapper.entityToDto(getFlight(flightId));
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.FLIGHTS, key = "#flightId")
+    public List<BookingResultDTO> addPassengers(int flightId, List<Integer> passengerIds) {
+        departureIndex.changed(flightId);
+        return bookPassengers(getFlight(flightId), passengerIds);
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.FLIGHTS, allEntries = true)
+    public List<BookingResultDTO> addPassengers(List<FlightBookingDTO> bookings) {
+        List<List<BookingResultDTO>> results = new ArrayList<>(Collections.nCopies(bookings.size(), List.of()));
+        departureIndex.changed(bookings.stream().map(FlightBookingDTO::flightId).toList());
+        IntStream.range(0, bookings.size()).boxed()
+                .sorted(Comparator.comparingInt(i -> bookings.get(i).flightId()))
+                .forEach(i -> {
+                    FlightBookingDTO booking = bookings.get(i);
+                    results.set(i, flightRepository.findById(booking.flightId())
+                            .map(flight -> bookPassengers(flight, booking.passengerIds()))
+                            .orElseGet(() -> booking.passengerIds().stream()
+                                    .map(passengerId -> BookingResultDTO.rejected(
+                                            booking.flightId(), passengerId, "Flight with id = " + booking.flightId() + " not found"))
+                                    .toList()));
+                });
+        return results.stream().flatMap(List::stream).toList();
+    }
+
+    private List<BookingResultDTO> bookPassengers(Flight flight, List<Integer> passengerIds) {
+        Set<Integer> existing = passengerService.getPassengers(passengerIds).stream()
+                .map(Passenger::getId)
+                .collect(Collectors.toSet());
+        Set<Integer> onBoard = existing.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(flightRepository.findPassengerIdsOnFlight(flight.getId(), existing));
+        BookingResultDTO[] results = new BookingResultDTO[passengerIds.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            int passengerId = passengerIds.get(i);
+            if (!existing.contains(passengerId)) {
+                results[i] = BookingResultDTO.rejected(flight.getId(), passengerId, "Passenger with id = " + passengerId + " not found");
+            } else if (pendingBookings.contains(flight.getId(), passengerId) || !onBoard.add(passengerId)) {
+                results[i] = BookingResultDTO.rejected(flight.getId(), passengerId, "Passenger with id = " + passengerId + " is already added to flight number LO" + flight.getNumber() + ".");
+            } else {
+                accepted.add(passengerId);
+            }
+        }
+        boolean reserved = !accepted.isEmpty() && seatReservationService.reserveAll(flight, accepted);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = reserved
+                        ? BookingResultDTO.booked(flight.getId(), passengerIds.get(i))
+                        : BookingResultDTO.rejected(flight.getId(), passengerIds.get(i), "No available seats on flight number LO" + flight.getNumber() + ".");
+            }
+        }
+        return List.of(results);
     }
 
     public Flight getFlight(int id) {
         return flightRepository.findById(id).orElseThrow(() -> new FlightNotFoundException("Flight with id = " + id + " not found"));
     }
 
+    @Cacheable(cacheNames = CacheConfig.FLIGHTS, key = "#id")
     public FlightDTO getFlightDto(int id) {
         return flightMapper.entityToDto(flightRepository.findById(id)
                 .orElseThrow(() -> new FlightNotFoundException("Flight with id = " + id + " not found")));
     }
 
+    public String getFlightVersionTag(int id) {
+        return flightRepository.findVersionTagById(id)
+                .orElseThrow(() -> new FlightNotFoundException("Flight with id = " + id + " not found"));
+    }
+
+    public String getFlightsVersionTag() {
+        return flightRepository.findVersionTag();
+    }
+
+    public String getFlightsWithPassengersVersionTag() {
+        return flightRepository.findVersionTag() + "-" + passengerService.getPassengersVersionTag();
+    }
+
+    @Transactional
+    public ImportResultDTO importFlights(Iterator<FlightDTO> flights) {
+        return BatchImport.run(flights, flightMapper::dtoToEntity, validator, chunk -> {
+            flightRepository.saveAll(chunk);
+            departureIndex.changed(chunk.stream().map(Flight::getId).toList());
+            routeIndex.added(chunk.stream().map(Flight::getRoute).toList());
+            flightRepository.flush();
+            flightRepository.detachAll();
+        });
+    }
+
+    @Timed(value = "flights.read", histogram = true)
     public List<FlightDTO> readAllFlights() {
         return flightRepository.findAll().stream()
                 .map(flightMapper::entityToDto).toList();
     }
 
+    @Timed(value = "flights.read", histogram = true)
     public List<FlightDTO> readAllFlights(Pageable pageable) {
-        return flightRepository.findAll(pageable).stream()
+        return flightRepository.findAllBy(pageable).stream()
                 .map(flightMapper::entityToDto).toList();
     }
 
+    public CursorPageDTO<FlightDTO> readFlightsAfter(String cursor, int size) {
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<Flight> flights;
+        if (cursor == null || cursor.isBlank()) {
+            flights = flightRepository.findFirstKeysetPage(limit);
+        } else {
+            String[] keys = KeysetCursor.decode(cursor, 2);
+            try {
+                flights = flightRepository.findKeysetPageAfter(LocalDateTime.parse(keys[0]), Integer.parseInt(keys[1]), limit);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new InvalidCursorException("Cursor " + cursor + " is not valid.");
+            }
+        }
+        boolean hasNext = flights.size() > size;
+        List<Flight> page = hasNext ? flights.subList(0, size) : flights;
+        Flight last = page.isEmpty() ? null : page.get(page.size() - 1);
+        String nextCursor = hasNext ? KeysetCursor.encode(last.getDeparture().toString(), String.valueOf(last.getId())) : null;
+        return new CursorPageDTO<>(page.stream().map(flightMapper::entityToDto).toList(), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportFlights(Consumer<FlightDTO> consumer) {
+        try (Stream<Flight> flights = flightRepository.streamAll()) {
+            Iterator<Flight> iterator = flights.iterator();
+            List<Flight> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    chunk.stream().map(flightMapper::entityToDto).forEach(consumer);
+                    chunk.clear();
+                    flightRepository.detachAll();
+                }
+            }
+        }
+    }
+
+    public List<PassengerDTO> readFlightPassengers(int flightId, Pageable pageable) {
+        getFlight(flightId);
+        return flightRepository.findPassengersByFlightId(flightId, sortedById(pageable, PASSENGER_SORT)).getContent();
+    }
+
+    public List<FlightSummaryDTO> readPassengerFlights(int passengerId, Pageable pageable) {
+        passengerService.getPassenger(passengerId);
+        return flightRepository.findSummariesByPassengerId(passengerId, sortedById(pageable, FLIGHT_SORT)).getContent();
+    }
+
+    private static Pageable sortedById(Pageable pageable, List<String> sortable) {
+        Sort sort = pageable.getSort();
+        sort.stream()
+                .filter(order -> !sortable.contains(order.getProperty()))
+                .findFirst()
+                .ifPresent(order -> {
+                    throw new InvalidSortException("Cannot sort by " + order.getProperty() + ", allowed: " + String.join(", ", sortable));
+                });
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id"));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    @Timed(value = "flights.read", histogram = true)
+    public List<FlightSummaryDTO> readAllFlightSummaries() {
+        return flightRepository.findAllSummaries();
+    }
+
+    @Timed(value = "flights.read", histogram = true)
+    public List<FlightSummaryDTO> readAllFlightSummaries(Pageable pageable) {
+        return flightRepository.findAllSummaries(pageable).getContent();
+    }
+
+    @RetryOnConflict("Flight")
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.FLIGHTS, key = "#id")
     public FlightDTO updateFlight(int id, Flight toUpdate) {
         Flight flight = getFlight(id);
+        String previousRoute = flight.getRoute();
         flight.flightUpdate(toUpdate);
         flightRepository.save(flight);
+        departureIndex.changed(id);
+        routeIndex.moved(previousRoute, flight.getRoute());
         return flightMapper.entityToDto(flight);
     }
 
+    @Timed(value = "flights.bookings", extraTags = {"operation", "delete"}, histogram = true)
+    @Counted(value = "flights.bookings.rejected", extraTags = {"operation", "delete"}, recordFailuresOnly = true)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.FLIGHTS, key = "#flightId")
     public FlightDTO deletePassenger(int flightId, int passengerId) {
-            Flight flight = getFlight(flightId);
-            Passenger passenger = passengerService.getPassenger(passengerId);
+        Flight flight = getFlight(flightId);
+        Passenger passenger = passengerService.getPassenger(passengerId);
 
-            validateFlightForDeletePassenger(flight, passenger);
+        validateFlightForDeletePassenger(flight, passenger);
 
-            flight.deletePassenger(passenger);
-            flightRepository.save(flight);
-            return flightMapper.entityToDto(flight);
+        seatReservationService.release(flight, passenger);
+        departureIndex.changed(flightId);
+        return flightMapper.entityToDto(getFlight(flightId));
     }
 
+    @RetryOnConflict("Flight")
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.FLIGHTS, key = "#id")
     public void deleteFlight(int id) {
-        flightRepository.delete(getFlight(id));
+        Flight flight = getFlight(id);
+        flightRepository.delete(flight);
+        departureIndex.changed(id);
+        routeIndex.removed(flight.getRoute());
     }
 
-    public List<FlightDTO> search(String route, LocalDateTime departure, Integer availableSeats) {
-        return flightRepository.findByRouteContainingAndDepartureAfterAndAvailableSeatsGreaterThanEqual(
-                        route != null ? route : "",
-                        departure != null ? departure : LocalDateTime.now(),
-                        availableSeats != null ? availableSeats : 0).stream()
+    @Timed(value = "flights.routes.suggest", histogram = true)
+    public List<String> suggestRoutes(String prefix, int limit) {
+        return routeIndex.suggest(prefix, limit);
+    }
+
+    @Timed(value = "flights.search", histogram = true)
+    public List<FlightSummaryDTO> searchSummaries(String route, String origin, String destination, LocalDateTime departure, LocalDateTime departureBefore, Integer availableSeats, Pageable pageable) {
+        LocalDateTime departureAfter = departure != null ? departure : LocalDateTime.now();
+        LocalDateTime departureUntil = departureBefore != null ? departureBefore : LATEST_DEPARTURE;
+        int seats = availableSeats != null ? availableSeats : 0;
+        if (upcomingOnly(route, origin, destination) && departureIndex.serves(departureAfter, pageable)) {
+            return departureIndex.departing(departureAfter, departureUntil, seats, pageable);
+        }
+        Slice<FlightSummaryDTO> flights = route != null && !route.isBlank()
+                ? flightRepository.findSummariesByRoute(route, departureAfter, departureUntil, seats, pageable)
+                : flightRepository.findSummariesByOriginAndDestination(
+                        origin != null ? origin : "", destination != null ? destination : "", departureAfter, departureUntil, seats, pageable);
+        return flights.getContent();
+    }
+
+    @Timed(value = "flights.search", histogram = true)
+    public List<FlightDTO> search(String route, String origin, String destination, LocalDateTime departure, LocalDateTime departureBefore, Integer availableSeats, Pageable pageable) {
+        LocalDateTime departureAfter = departure != null ? departure : LocalDateTime.now();
+        LocalDateTime departureUntil = departureBefore != null ? departureBefore : LATEST_DEPARTURE;
+        int seats = availableSeats != null ? availableSeats : 0;
+        if (upcomingOnly(route, origin, destination) && departureIndex.serves(departureAfter, pageable)) {
+            List<Integer> ids = departureIndex.departing(departureAfter, departureUntil, seats, pageable).stream()
+                    .map(FlightSummaryDTO::id)
+                    .toList();
+            Map<Integer, Flight> flights = flightRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Flight::getId, Function.identity()));
+            return ids.stream()
+                    .map(flights::get)
+                    .filter(Objects::nonNull)
+                    .map(flightMapper::entityToDto)
+                    .toList();
+        }
+        Slice<Flight> flights = route != null && !route.isBlank()
+                ? flightRepository.findByRouteContainingAndDepartureAfterAndDepartureBeforeAndAvailableSeatsGreaterThanEqual(
+                        route, departureAfter, departureUntil, seats, pageable)
+                : flightRepository.findByOriginStartingWithAndDestinationStartingWithAndDepartureAfterAndDepartureBeforeAndAvailableSeatsGreaterThanEqual(
+                        origin != null ? origin : "", destination != null ? destination : "", departureAfter, departureUntil, seats, pageable);
+        return flights.stream()
                 .map(flightMapper::entityToDto)
                 .toList();
     }
 
+    private static boolean upcomingOnly(String route, String origin, String destination) {
+        return (route == null || route.isBlank()) && (origin == null || origin.isEmpty()) && (destination == null || destination.isEmpty());
+    }
 
     void validateFlightForAddPassenger(Flight flight, Passenger passenger) {
         if (flight.checkAvailableSeats()) {
             throw new NoAvailableSeatsException("No available seats on flight number LO" + flight.getNumber() + ".");
         }
-        if (flight.checkForPassengerInFlight(passenger)) {
+        if (pendingBookings.contains(flight.getId(), passenger.getId())
+                || flightRepository.containsPassenger(flight.getId(), passenger.getId())) {
             throw new DuplicatePassengerException("Passenger with id = " + passenger.getId() + " is already added to flight number LO" + flight.getNumber() + ".");
         }
     }
 
     void validateFlightForDeletePassenger(Flight flight, Passenger passenger) {
-        if (!flight.checkForPassengerInFlight(passenger)) {
+        if (!flightRepository.containsPassenger(flight.getId(), passenger.getId())) {
             throw new PassengerNotFoundException("Passenger with id = " + passenger.getId() + " not found on flight number LO" + flight.getNumber() + ".");
         }
     }
@@ -0,0 +1,31 @@
+package com.example.flightmanager.service;
+
+import com.example.flightmanager.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+final class KeysetCursor {
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    static String encode(String... keys) {
+        byte[] cursor = String.join(SEPARATOR, keys).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor);
+    }
+
+    static String[] decode(String cursor, int keys) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", -1);
+            if (parts.length != keys) {
+                throw new InvalidCursorException("Cursor " + cursor + " is not valid.");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor " + cursor + " is not valid.");
+        }
+    }
+}
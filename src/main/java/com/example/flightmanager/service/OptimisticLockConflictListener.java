@@ -0,0 +1,28 @@
+package com.example.flightmanager.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.support.Args;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component(OptimisticLockConflictListener.NAME)
+@RequiredArgsConstructor
+class OptimisticLockConflictListener implements RetryListener {
+    static final String NAME = "optimisticLockConflictListener";
+    static final String CONFLICTS_METRIC = "optimistic.lock.conflicts";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        String entity = String.valueOf(context.getAttribute(RetryContext.NAME));
+        Object[] args = context.getAttribute("ARGS") instanceof Args invocation ? invocation.getArgs() : new Object[0];
+        meterRegistry.counter(CONFLICTS_METRIC, "entity", entity).increment();
+        log.debug("Optimistic lock conflict on {} with id = {}, attempt {}", entity, args.length > 0 ? args[0] : "unknown", context.getRetryCount());
+    }
+}
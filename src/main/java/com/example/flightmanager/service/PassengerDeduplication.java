@@ -0,0 +1,91 @@
+package com.example.flightmanager.service;
+
+import com.example.flightmanager.CacheConfig;
+import com.example.flightmanager.dto.DeduplicationResultDTO;
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.model.Passenger;
+import com.example.flightmanager.repository.FlightRepository;
+import com.example.flightmanager.repository.PassengerRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class PassengerDeduplication {
+    static final int CHUNK_SIZE = 500;
+
+    private final PassengerRepository passengerRepository;
+    private final FlightRepository flightRepository;
+    private final DepartureIndex departureIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    public PassengerDeduplication(PassengerRepository passengerRepository,
+                                  FlightRepository flightRepository,
+                                  DepartureIndex departureIndex,
+                                  PlatformTransactionManager transactionManager) {
+        this.passengerRepository = passengerRepository;
+        this.flightRepository = flightRepository;
+        this.departureIndex = departureIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.PASSENGERS, CacheConfig.FLIGHTS}, allEntries = true)
+    public DeduplicationResultDTO mergeDuplicates() {
+        long scanned = 0;
+        long merged = 0;
+        Chunk chunk = new Chunk(0, 0, 0);
+        do {
+            int afterId = chunk.lastId();
+            chunk = transactionTemplate.execute(status -> mergeChunk(afterId));
+            scanned += chunk.scanned();
+            merged += chunk.merged();
+        } while (chunk.scanned() == CHUNK_SIZE);
+        return new DeduplicationResultDTO(scanned, merged);
+    }
+
+    private Chunk mergeChunk(int afterId) {
+        List<Passenger> passengers = passengerRepository.findByFingerprintIsNullAndIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(CHUNK_SIZE));
+        List<Integer> changedFlights = new ArrayList<>();
+        int merged = 0;
+        for (Passenger passenger : passengers) {
+            Optional<Passenger> survivor = passengerRepository.findByFingerprint(
+                    Passenger.fingerprint(passenger.getName(), passenger.getSurname(), passenger.getPhone()));
+            if (survivor.isPresent()) {
+                changedFlights.addAll(moveBookings(passenger.getId(), survivor.get().getId()));
+                passengerRepository.delete(passenger);
+                merged++;
+            } else {
+                passenger.normalize();
+                passengerRepository.save(passenger);
+            }
+        }
+        departureIndex.changed(changedFlights);
+        int lastId = passengers.isEmpty() ? afterId : passengers.get(passengers.size() - 1).getId();
+        return new Chunk(lastId, passengers.size(), merged);
+    }
+
+    private List<Integer> moveBookings(int duplicateId, int survivorId) {
+        List<Integer> flightIds = flightRepository.findSummariesByPassengerId(duplicateId, Pageable.unpaged()).stream()
+                .map(FlightSummaryDTO::id)
+                .toList();
+        for (int flightId : flightIds) {
+            flightRepository.removePassenger(flightId, duplicateId);
+            if (flightRepository.containsPassenger(flightId, survivorId)) {
+                flightRepository.releaseSeat(flightId);
+            } else {
+                flightRepository.insertPassenger(flightId, survivorId);
+            }
+        }
+        return flightIds;
+    }
+
+    private record Chunk(int lastId, int scanned, int merged) {
+    }
+}
@@ -1,26 +1,79 @@
 package com.example.flightmanager.service;
 
+import com.example.flightmanager.CacheConfig;
+import com.example.flightmanager.dto.CursorPageDTO;
+import com.example.flightmanager.dto.ImportResultDTO;
 import com.example.flightmanager.dto.PassengerDTO;
+import com.example.flightmanager.exception.DuplicatePassengerException;
+import com.example.flightmanager.exception.InvalidCursorException;
 import com.example.flightmanager.exception.PassengerNotFoundException;
 import com.example.flightmanager.mapper.PassengerMapper;
 import com.example.flightmanager.model.Passenger;
 import com.example.flightmanager.repository.PassengerRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class PassengerService {
+    private static final int EXPORT_CHUNK_SIZE = 500;
 
     private final PassengerRepository passengerRepository;
     private final PassengerMapper passengerMapper;
+    private final Validator validator;
 
     public PassengerDTO addPassenger(PassengerDTO passengerDTO) {
         Passenger passenger = passengerMapper.dtoToEntity(passengerDTO);
-        return passengerMapper.entityToDto(passengerRepository.save(passenger));
+        passengerRepository.findByFingerprint(passenger.getFingerprint()).ifPresent(existing -> {
+            throw duplicate(existing);
+        });
+        try {
+            return passengerMapper.entityToDto(passengerRepository.save(passenger));
+        } catch (DataIntegrityViolationException e) {
+            throw duplicate(passengerRepository.findByFingerprint(passenger.getFingerprint()).orElseThrow(() -> e));
+        }
+    }
+
+    public PassengerDTO upsertPassenger(PassengerDTO passengerDTO) {
+        Passenger passenger = passengerMapper.dtoToEntity(passengerDTO);
+        Optional<Passenger> existing = passengerRepository.findByFingerprint(passenger.getFingerprint());
+        if (existing.isPresent()) {
+            return passengerMapper.entityToDto(existing.get());
+        }
+        try {
+            return passengerMapper.entityToDto(passengerRepository.save(passenger));
+        } catch (DataIntegrityViolationException e) {
+            return passengerMapper.entityToDto(passengerRepository.findByFingerprint(passenger.getFingerprint()).orElseThrow(() -> e));
+        }
+    }
+
+    @Transactional
+    public ImportResultDTO importPassengers(Iterator<PassengerDTO> passengers) {
+        return BatchImport.run(passengers, passengerMapper::dtoToEntity, validator,
+                Passenger::getFingerprint, passengerRepository::findFingerprintsIn,
+                fingerprint -> "Duplicate passenger with fingerprint " + fingerprint + ".",
+                chunk -> {
+                    passengerRepository.saveAll(chunk);
+                    passengerRepository.flush();
+                    passengerRepository.detachAll();
+                });
     }
 
     public List<PassengerDTO> readAllPassengers() {
@@ -29,28 +82,112 @@ public class PassengerService {
     }
 
     public List<PassengerDTO> readAllPassengers(Pageable pageable) {
-        return passengerRepository.findAll(pageable).stream()
+        return passengerRepository.findAllBy(pageable).stream()
                 .map(passengerMapper::entityToDto).toList();
     }
 
+    public CursorPageDTO<PassengerDTO> readPassengersAfter(String cursor, int size) {
+        int afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                afterId = Integer.parseInt(KeysetCursor.decode(cursor, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new InvalidCursorException("Cursor " + cursor + " is not valid.");
+            }
+        }
+        List<Passenger> passengers = passengerRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(size + 1));
+        boolean hasNext = passengers.size() > size;
+        List<Passenger> page = hasNext ? passengers.subList(0, size) : passengers;
+        String nextCursor = hasNext ? KeysetCursor.encode(String.valueOf(page.get(page.size() - 1).getId())) : null;
+        return new CursorPageDTO<>(page.stream().map(passengerMapper::entityToDto).toList(), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportPassengers(Consumer<PassengerDTO> consumer) {
+        try (Stream<Passenger> passengers = passengerRepository.streamAll()) {
+            Iterator<Passenger> iterator = passengers.iterator();
+            int exported = 0;
+            while (iterator.hasNext()) {
+                consumer.accept(passengerMapper.entityToDto(iterator.next()));
+                if (++exported % EXPORT_CHUNK_SIZE == 0) {
+                    passengerRepository.detachAll();
+                }
+            }
+        }
+    }
+
+    @Timed(value = "passengers.search", histogram = true)
+    public List<PassengerDTO> search(String phone, String surname, String name, Pageable pageable) {
+        String surnamePrefix = surname != null ? Passenger.normalizeName(surname) : "";
+        String namePrefix = name != null ? Passenger.normalizeName(name) : "";
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Slice<Passenger> passengers;
+        if (phone != null && !phone.isBlank()) {
+            passengers = passengerRepository.findByPhoneAndNamePrefix(Passenger.normalizePhone(phone), surnamePrefix, namePrefix, page);
+        } else if (surnamePrefix.isEmpty() && !namePrefix.isEmpty()) {
+            passengers = passengerRepository.findByFirstNamePrefix(namePrefix, page);
+        } else {
+            passengers = passengerRepository.findByNamePrefix(surnamePrefix, namePrefix, page);
+        }
+        return passengers.stream()
+                .map(passengerMapper::entityToDto)
+                .toList();
+    }
+
     public Passenger getPassenger(int id) {
         return passengerRepository.findById(id).orElseThrow(() -> new PassengerNotFoundException("Passenger with id = " + id + " not found"));
     }
 
+    public List<Passenger> getPassengers(Collection<Integer> ids) {
+        return passengerRepository.findAllById(ids);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PASSENGERS, key = "#id")
     public PassengerDTO getPassengerDto(int id) {
         return passengerMapper.entityToDto(passengerRepository.findById(id)
                 .orElseThrow(() -> new PassengerNotFoundException("Passenger with id = " + id + " not found")));
     }
 
+    public String getPassengerVersionTag(int id) {
+        return passengerRepository.findVersionById(id).map(String::valueOf)
+                .orElseThrow(() -> new PassengerNotFoundException("Passenger with id = " + id + " not found"));
+    }
+
+    public String getPassengersVersionTag() {
+        return passengerRepository.findVersionTag();
+    }
+
+    @RetryOnConflict("Passenger")
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PASSENGERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.FLIGHTS, allEntries = true)
+    })
     public PassengerDTO updatePassenger(int id, Passenger toUpdate) {
         Passenger passenger = getPassenger(id);
+        passengerRepository.findByFingerprint(toUpdate.getFingerprint())
+                .filter(existing -> existing.getId() != id)
+                .ifPresent(existing -> {
+                    throw duplicate(existing);
+                });
         passenger.passengerUpdate(toUpdate);
         passengerRepository.save(passenger);
         return passengerMapper.entityToDto(passenger);
     }
 
+    @RetryOnConflict("Passenger")
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PASSENGERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.FLIGHTS, allEntries = true)
+    })
     public void deletePassenger(int id) {
         Passenger passenger = getPassenger(id);
         passengerRepository.delete(passenger);
     }
-}
\ No newline at end of file
+
+    private static DuplicatePassengerException duplicate(Passenger existing) {
+        return new DuplicatePassengerException("Passenger " + existing.getName() + " " + existing.getSurname()
+                + " with phone " + existing.getPhone() + " already exists with id = " + existing.getId() + ".");
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.flightmanager.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class PendingBookings {
+    private final Set<Long> bookings = ConcurrentHashMap.newKeySet();
+
+    public boolean contains(int flightId, int passengerId) {
+        return bookings.contains(key(flightId, passengerId));
+    }
+
+    boolean add(int flightId, int passengerId) {
+        return bookings.add(key(flightId, passengerId));
+    }
+
+    void remove(int flightId, int passengerId) {
+        bookings.remove(key(flightId, passengerId));
+    }
+
+    int count(int flightId) {
+        return (int) bookings.stream().filter(key -> (int) (key >>> 32) == flightId).count();
+    }
+
+    int size() {
+        return bookings.size();
+    }
+
+    private static long key(int flightId, int passengerId) {
+        return (long) flightId << 32 | passengerId & 0xFFFFFFFFL;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.flightmanager.service;
+
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.repository.ReactiveFlightRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveFlightService {
+
+    private final ReactiveFlightRepository flightRepository;
+
+    public Flux<FlightSummaryDTO> readAllFlightSummaries(Pageable pageable) {
+        return flightRepository.findAllSummaries(pageable);
+    }
+
+    public Flux<FlightSummaryDTO> search(String route, String origin, String destination, LocalDateTime departure, LocalDateTime departureBefore, Integer availableSeats, Pageable pageable) {
+        LocalDateTime departureAfter = departure != null ? departure : LocalDateTime.now();
+        LocalDateTime departureUntil = departureBefore != null ? departureBefore : FlightService.LATEST_DEPARTURE;
+        int seats = availableSeats != null ? availableSeats : 0;
+        return route != null && !route.isBlank()
+                ? flightRepository.findSummariesByRoute(route, departureAfter, departureUntil, seats, pageable)
+                : flightRepository.findSummariesByOriginAndDestination(
+                        origin != null ? origin : "", destination != null ? destination : "", departureAfter, departureUntil, seats, pageable);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.flightmanager.service;
+
+import com.example.flightmanager.dto.PassengerDTO;
+import com.example.flightmanager.exception.PassengerNotFoundException;
+import com.example.flightmanager.repository.ReactivePassengerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactivePassengerService {
+
+    private final ReactivePassengerRepository passengerRepository;
+
+    public Flux<PassengerDTO> readAllPassengers(Pageable pageable) {
+        return passengerRepository.findAll(pageable);
+    }
+
+    public Mono<PassengerDTO> getPassengerDto(int id) {
+        return passengerRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new PassengerNotFoundException("Passenger with id = " + id + " not found")));
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.flightmanager.service;
+
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Retryable(retryFor = OptimisticLockingFailureException.class,
+        maxAttempts = 4,
+        backoff = @Backoff(delay = 20, multiplier = 2, maxDelay = 200, random = true),
+        listeners = OptimisticLockConflictListener.NAME)
+@interface RetryOnConflict {
+
+    @AliasFor(annotation = Retryable.class, attribute = "label")
+    String value();
+}
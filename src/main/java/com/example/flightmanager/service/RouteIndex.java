@@ -0,0 +1,91 @@
+package com.example.flightmanager.service;
+
+import com.example.flightmanager.repository.FlightRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@Component
+@RequiredArgsConstructor
+public class RouteIndex {
+    private static final Comparator<Route> BY_FLIGHTS = Comparator.comparingInt(Route::flights).reversed()
+            .thenComparing(route -> key(route.route()));
+
+    private final FlightRepository flightRepository;
+    private final NavigableMap<String, Route> routes = new ConcurrentSkipListMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        routes.clear();
+        flightRepository.findRouteCounts().forEach(count -> add(count.route(), (int) count.flights()));
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = key(prefix);
+        PriorityQueue<Route> top = new PriorityQueue<>(limit + 1, BY_FLIGHTS.reversed());
+        for (Map.Entry<String, Route> entry : routes.tailMap(key, true).entrySet()) {
+            if (!entry.getKey().startsWith(key)) {
+                break;
+            }
+            top.add(entry.getValue());
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        return top.stream()
+                .sorted(BY_FLIGHTS)
+                .map(Route::route)
+                .toList();
+    }
+
+    public void added(String route) {
+        added(List.of(route));
+    }
+
+    public void added(Collection<String> added) {
+        List<String> copy = List.copyOf(added);
+        AfterCommit.run(() -> apply(copy, List.of()));
+    }
+
+    public void moved(String previous, String route) {
+        if (!previous.equals(route)) {
+            AfterCommit.run(() -> apply(List.of(route), List.of(previous)));
+        }
+    }
+
+    public void removed(String route) {
+        AfterCommit.run(() -> apply(List.of(), List.of(route)));
+    }
+
+    private synchronized void apply(List<String> added, List<String> removed) {
+        added.forEach(route -> add(route, 1));
+        removed.forEach(this::release);
+    }
+
+    private void add(String route, int flights) {
+        routes.merge(key(route), new Route(route, flights), (current, more) -> new Route(current.route(), current.flights() + more.flights()));
+    }
+
+    private void release(String route) {
+        routes.computeIfPresent(key(route), (key, current) -> current.flights() > 1
+                ? new Route(current.route(), current.flights() - 1)
+                : null);
+    }
+
+    private static String key(String route) {
+        return route.toLowerCase(Locale.ROOT);
+    }
+
+    private record Route(String route, int flights) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.flightmanager.service;
+
+import com.example.flightmanager.exception.DuplicatePassengerException;
+import com.example.flightmanager.exception.NoAvailableSeatsException;
+import com.example.flightmanager.exception.PassengerNotFoundException;
+import com.example.flightmanager.model.Flight;
+import com.example.flightmanager.model.Passenger;
+import com.example.flightmanager.repository.FlightRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SeatReservationService {
+
+    private final FlightRepository flightRepository;
+
+    @Transactional
+    public void reserve(Flight flight, Passenger passenger) {
+        if (flightRepository.reserveSeats(flight.getId(), 1) == 0) {
+            throw new NoAvailableSeatsException("No available seats on flight number LO" + flight.getNumber() + ".");
+        }
+        try {
+            flightRepository.insertPassenger(flight.getId(), passenger.getId());
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicatePassengerException("Passenger with id = " + passenger.getId() + " is already added to flight number LO" + flight.getNumber() + ".");
+        }
+    }
+
+    @Transactional
+    public boolean reserveAll(Flight flight, List<Integer> passengerIds) {
+        if (flightRepository.reserveSeats(flight.getId(), passengerIds.size()) == 0) {
+            return false;
+        }
+        try {
+            flightRepository.insertPassengers(flight.getId(), passengerIds);
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicatePassengerException("One of the passengers is already added to flight number LO" + flight.getNumber() + ".");
+        }
+        return true;
+    }
+
+    @Transactional
+    public void release(Flight flight, Passenger passenger) {
+        if (flightRepository.removePassenger(flight.getId(), passenger.getId()) == 0) {
+            throw new PassengerNotFoundException("Passenger with id = " + passenger.getId() + " not found on flight number LO" + flight.getNumber() + ".");
+        }
+        flightRepository.releaseSeat(flight.getId());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.flightmanager.adapter;
+
+import com.example.flightmanager.exception.BookingJournalFullException;
+import com.example.flightmanager.repository.BookingJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFileBookingJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void append_shouldWrapAroundWhenFlushedEntriesFreeSpace() throws IOException {
+        // given
+        try (MappedFileBookingJournal journal = new MappedFileBookingJournal(directory.resolve("bookings.journal"), 4)) {
+            journal.append(0, 0);
+
+            // when
+            for (int i = 1; i <= 10; i++) {
+                journal.append(i, i);
+                journal.markFlushed(1);
+            }
+
+            // then
+            assertEquals(List.of(new BookingJournal.Entry(10, 10)), journal.pending(Integer.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void append_shouldRejectEntriesWhenUnflushedEntriesFillCapacity() throws IOException {
+        // given
+        Path path = directory.resolve("bookings.journal");
+        try (MappedFileBookingJournal journal = new MappedFileBookingJournal(path, 4)) {
+            for (int i = 0; i < 4; i++) {
+                journal.append(i, i);
+            }
+            assertThrows(BookingJournalFullException.class, () -> journal.append(4, 4));
+            journal.markFlushed(2);
+        }
+
+        // when
+        try (MappedFileBookingJournal journal = new MappedFileBookingJournal(path, 4)) {
+            journal.append(4, 4);
+            journal.append(5, 5);
+
+            // then
+            assertThrows(BookingJournalFullException.class, () -> journal.append(6, 6));
+            assertEquals(List.of(2, 3, 4, 5), journal.pending(Integer.MAX_VALUE).stream().map(BookingJournal.Entry::flightId).toList());
+        }
+    }
+}
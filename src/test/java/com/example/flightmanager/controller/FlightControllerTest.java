@@ -1,28 +1,43 @@
 package com.example.flightmanager.controller;
 
+import com.example.flightmanager.CacheConfig;
+import com.example.flightmanager.dto.FlightDTO;
+import com.example.flightmanager.dto.FlightSummaryDTO;
 import com.example.flightmanager.model.Flight;
 import com.example.flightmanager.model.Passenger;
 import com.example.flightmanager.repository.FlightRepository;
 import com.example.flightmanager.repository.PassengerRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
 import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -36,6 +51,12 @@ class FlightControllerTest {
     private PassengerRepository passengerRepository;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Test
     @Transactional
@@ -79,6 +100,37 @@ class FlightControllerTest {
                 .andExpect(jsonPath("$.availableSeats", Matchers.is("Available seats must not be less than 0.")));
     }
 
+    @Test
+    @Transactional
+    void shouldImportFlightsFromCsvAndJson() throws Exception {
+        // given
+        String csv = """
+                number,route,departure,availableSeats
+                13,Warsaw - Oslo,2030-06-01T12:00:00,100
+                14,,2030-06-01T12:00:00,100
+                15,Oslo - Warsaw,2020-06-01T12:00:00,-1
+                """;
+        String json = """
+                [
+                    {"number": 16, "route": "Warsaw - London", "departure": "2030-06-02T12:00:00", "availableSeats": 150}
+                ]
+                """;
+
+        // when + then
+        mockMvc.perform(post("/flights/import").contentType("text/csv").content(csv))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.imported", Matchers.is(1)))
+                .andExpect(jsonPath("$.rejected", Matchers.is(2)))
+                .andExpect(jsonPath("$.errors[0]", Matchers.is("Row 2: Route cannot be an empty field.")))
+                .andExpect(jsonPath("$.errors[1]", Matchers.is("Row 3: Available seats must not be less than 0. Must be a future date.")));
+        mockMvc.perform(post("/flights/import").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.imported", Matchers.is(1)));
+        mockMvc.perform(get("/flights/search?origin=Warsaw"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.size()", Matchers.is(2)));
+    }
+
     @Test
     @Transactional
     void shouldReadAllFlights() throws Exception {
@@ -87,8 +139,9 @@ class FlightControllerTest {
         createEmptyFlight(15, "Warsaw - London", LocalDateTime.now().plusDays(5), 150);
 
         // when + then
-        MvcResult mvcResult = mockMvc.perform(get("/flights"))
+        MvcResult mvcResult = mockMvc.perform(get("/flights?expand=passengers"))
                 .andExpect(status().is(200))
+                .andExpect(jsonPath("$[0].passengers.size()", Matchers.is(0)))
                 .andReturn();
 
         Flight[] result = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), Flight[].class);
@@ -97,6 +150,151 @@ class FlightControllerTest {
         assertEquals(2, result.length);
     }
 
+    @Test
+    void readAllFlights_shouldLoadPassengersWithConstantNumberOfQueries() throws Exception {
+        // given
+        List<Passenger> passengers = List.of(
+                passengerRepository.save(new Passenger("Han", "Solo", "123 123 123")),
+                passengerRepository.save(new Passenger("Leia", "Organa", "321 321 321")));
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Flight flight = createEmptyFlight(i, "Chicago - Warsaw", LocalDateTime.now().plusDays(i), 100);
+            passengers.forEach(flight::addPassenger);
+            flights.add(flightRepository.save(flight));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        try {
+            // when
+            mockMvc.perform(get("/flights?expand=passengers"))
+                    .andExpect(status().is(200))
+                    .andExpect(jsonPath("$.size()", Matchers.is(5)))
+                    .andExpect(jsonPath("$[4].passengers.size()", Matchers.is(2)));
+            long unpagedStatements = statistics.getPrepareStatementCount();
+            statistics.clear();
+            mockMvc.perform(get("/flights?expand=passengers&page=0&size=5"))
+                    .andExpect(status().is(200))
+                    .andExpect(jsonPath("$[4].passengers.size()", Matchers.is(2)));
+            long pagedStatements = statistics.getPrepareStatementCount();
+
+            // then
+            assertEquals(3, unpagedStatements);
+            assertEquals(2, pagedStatements);
+        } finally {
+            flights.forEach(flightRepository::delete);
+            passengers.forEach(passengerRepository::delete);
+        }
+    }
+
+    @Test
+    void shouldStreamAllFlightsAsNdjson() throws Exception {
+        // given
+        List<Flight> flights = List.of(
+                createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(2), 100),
+                createEmptyFlight(15, "Warsaw - London", LocalDateTime.now().plusDays(5), 150));
+        long requestsBefore = sqlStatementsSummary("GET", "/flights").count();
+
+        try {
+            // when
+            MvcResult asyncResult = mockMvc.perform(get("/flights").accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String content = mockMvc.perform(asyncDispatch(asyncResult))
+                    .andExpect(status().is(200))
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            // then
+            String[] lines = content.split("\n");
+            assertEquals(2, lines.length);
+            assertEquals(1, objectMapper.readValue(lines[0], Flight.class).getNumber());
+            assertEquals(15, objectMapper.readValue(lines[1], Flight.class).getNumber());
+            DistributionSummary statements = sqlStatementsSummary("GET", "/flights");
+            assertEquals(requestsBefore + 1, statements.count());
+            assertTrue(statements.max() >= 1);
+        } finally {
+            flights.forEach(flightRepository::delete);
+        }
+    }
+
+    @Test
+    @Transactional
+    void shouldScrollFlightsWithCursor() throws Exception {
+        // given
+        createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.parse("2030-06-03T12:00:00"), 100);
+        createEmptyFlight(2, "Chicago - Warsaw", LocalDateTime.parse("2030-06-01T12:00:00"), 100);
+        createEmptyFlight(3, "Chicago - Warsaw", LocalDateTime.parse("2030-06-02T12:00:00"), 100);
+
+        // when
+        MvcResult firstPage = mockMvc.perform(get("/flights/scroll?size=2"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.content.size()", Matchers.is(2)))
+                .andExpect(jsonPath("$.content[0].number", Matchers.is(2)))
+                .andExpect(jsonPath("$.content[1].number", Matchers.is(3)))
+                .andReturn();
+        String cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        // then
+        mockMvc.perform(get("/flights/scroll?size=2&cursor=" + cursor))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.content.size()", Matchers.is(1)))
+                .andExpect(jsonPath("$.content[0].number", Matchers.is(1)))
+                .andExpect(jsonPath("$.nextCursor").value(Matchers.nullValue()));
+    }
+
+    @Test
+    void scrollFlights_shouldResponseBadRequest_invalidCursor() throws Exception {
+        // when + then
+        mockMvc.perform(get("/flights/scroll?cursor=abc"))
+                .andExpect(status().is(400))
+                .andExpect(jsonPath("$.error", Matchers.is("Cursor abc is not valid.")));
+    }
+
+    @Test
+    @Transactional
+    void shouldReadAllFlightSummaries() throws Exception {
+        // given
+        Flight flight = createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(2), 100);
+        flight.addPassenger(passengerRepository.save(new Passenger("Han", "Solo", "123 123 123")));
+        flight.addPassenger(passengerRepository.save(new Passenger("Leia", "Organa", "321 321 321")));
+        createEmptyFlight(15, "Warsaw - London", LocalDateTime.now().plusDays(5), 150);
+
+        // when + then
+        mockMvc.perform(get("/flights"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.size()", Matchers.is(2)))
+                .andExpect(jsonPath("$[0].number", Matchers.is(flight.getNumber())))
+                .andExpect(jsonPath("$[0].passengerCount", Matchers.is(2)))
+                .andExpect(jsonPath("$[0].passengers").doesNotExist());
+        mockMvc.perform(get("/flights?page=1&size=1"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.size()", Matchers.is(1)))
+                .andExpect(jsonPath("$[0].number", Matchers.is(15)));
+    }
+
+    @Test
+    @Transactional
+    void shouldReadAllFlightSummariesAsCbor() throws Exception {
+        // given
+        Flight flight = createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.of(2030, 6, 1, 12, 0), 100);
+        flight.addPassenger(passengerRepository.save(new Passenger("Han", "Solo", "123 123 123")));
+
+        // when
+        MvcResult mvcResult = mockMvc.perform(get("/flights").accept("application/cbor"))
+                .andExpect(status().is(200))
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        // then
+        FlightSummaryDTO[] result = new CBORMapper().findAndRegisterModules()
+                .readValue(mvcResult.getResponse().getContentAsByteArray(), FlightSummaryDTO[].class);
+        assertEquals(1, result.length);
+        assertEquals("Chicago - Warsaw", result[0].route());
+        assertEquals(flight.getDeparture(), result[0].departure());
+        assertEquals(1, result[0].passengerCount());
+    }
+
     @Test
     @Transactional
     void shouldFindFlightById() throws Exception {
@@ -112,6 +310,188 @@ class FlightControllerTest {
                 .andExpect(jsonPath("$.availableSeats", Matchers.is(flight.getAvailableSeats())));
     }
 
+    @Test
+    @Transactional
+    void findFlightById_shouldServeCachedFlightUntilPassengerIsAdded() throws Exception {
+        // given
+        Flight flight = createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(2), 100);
+        Passenger passenger = passengerRepository.save(new Passenger("Leia", "Organa", "321 321 321"));
+        Cache flights = cacheManager.getCache(CacheConfig.FLIGHTS);
+
+        // when
+        mockMvc.perform(get("/flights/" + flight.getId()))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.passengers.size()", Matchers.is(0)));
+        assertNotNull(flights.get(flight.getId()));
+        mockMvc.perform(patch("/flights/add/" + flight.getId() + "/" + passenger.getId()))
+                .andExpect(status().is(200));
+        assertNull(flights.get(flight.getId()));
+
+        // then
+        mockMvc.perform(get("/flights/" + flight.getId()))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.passengers.size()", Matchers.is(1)))
+                .andExpect(jsonPath("$.availableSeats", Matchers.is(99)));
+    }
+
+    @Test
+    @Transactional
+    void findFlightById_shouldResponseNotModifiedUntilFlightChanges() throws Exception {
+        // given
+        Flight flight = createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(2), 100);
+        Passenger passenger = passengerRepository.save(new Passenger("Leia", "Organa", "321 321 321"));
+        String etag = mockMvc.perform(get("/flights/" + flight.getId()))
+                .andExpect(status().is(200))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when
+        mockMvc.perform(get("/flights/" + flight.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().is(304))
+                .andExpect(content().string(""));
+        mockMvc.perform(patch("/flights/add/" + flight.getId() + "/" + passenger.getId()))
+                .andExpect(status().is(200));
+
+        // then
+        mockMvc.perform(get("/flights/" + flight.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().is(200))
+                .andExpect(header().string(HttpHeaders.ETAG, Matchers.not(etag)))
+                .andExpect(jsonPath("$.passengers.size()", Matchers.is(1)));
+    }
+
+    @Test
+    @Transactional
+    void readAllFlightSummaries_shouldResponseNotModifiedUntilFlightIsAdded() throws Exception {
+        // given
+        createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(2), 100);
+        String etag = mockMvc.perform(get("/flights"))
+                .andExpect(status().is(200))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when
+        mockMvc.perform(get("/flights").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().is(304));
+        createEmptyFlight(2, "Warsaw - Oslo", LocalDateTime.now().plusDays(3), 50);
+
+        // then
+        mockMvc.perform(get("/flights").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().is(200))
+                .andExpect(header().string(HttpHeaders.ETAG, Matchers.not(etag)));
+    }
+
+    @Test
+    @Transactional
+    void readAllFlightSummaries_shouldNotTagPagedList() throws Exception {
+        // given
+        createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(2), 100);
+
+        // when + then
+        mockMvc.perform(get("/flights").param("page", "0").param("size", "10"))
+                .andExpect(status().is(200))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @Transactional
+    void shouldAddManyPassengersToFlight() throws Exception {
+        // given
+        Flight flight = createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(2), 2);
+        Passenger leia = passengerRepository.save(new Passenger("Leia", "Organa", "321 321 321"));
+        Passenger han = passengerRepository.save(new Passenger("Han", "Solo", "123 123 123"));
+        String body = objectMapper.writeValueAsString(List.of(leia.getId(), han.getId(), leia.getId()));
+
+        // when + then
+        mockMvc.perform(patch("/flights/add/" + flight.getId()).contentType("application/json").content(body))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$[0].booked", Matchers.is(true)))
+                .andExpect(jsonPath("$[1].booked", Matchers.is(true)))
+                .andExpect(jsonPath("$[2].booked", Matchers.is(false)));
+        mockMvc.perform(get("/flights/" + flight.getId()))
+                .andExpect(jsonPath("$.passengers.size()", Matchers.is(2)))
+                .andExpect(jsonPath("$.availableSeats", Matchers.is(0)));
+    }
+
+    @Test
+    @Transactional
+    void shouldAddPassengersToManyFlights() throws Exception {
+        // given
+        Flight flight = createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(2), 100);
+        Passenger leia = passengerRepository.save(new Passenger("Leia", "Organa", "321 321 321"));
+        String body = """
+                [
+                    {"flightId": 23, "passengerIds": [%d]},
+                    {"flightId": %d, "passengerIds": [%d]}
+                ]
+                """.formatted(leia.getId(), flight.getId(), leia.getId());
+
+        // when + then
+        mockMvc.perform(patch("/flights/add").contentType("application/json").content(body))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.length()", Matchers.is(2)))
+                .andExpect(jsonPath("$[?(@.flightId == 23)].error", Matchers.contains("Flight with id = 23 not found")))
+                .andExpect(jsonPath("$[?(@.flightId == %d)].booked".formatted(flight.getId()), Matchers.contains(true)));
+    }
+
+    @Test
+    void addPassengersToFlights_shouldResponseBadRequest_emptyPassengerIds() throws Exception {
+        // when + then
+        mockMvc.perform(patch("/flights/add").contentType("application/json").content("[{\"flightId\": 1, \"passengerIds\": []}]"))
+                .andExpect(status().is(400));
+    }
+
+    @Test
+    @Transactional
+    void shouldReadFlightPassengersPage() throws Exception {
+        // given
+        Flight flight = createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(2), 100);
+        Passenger han = passengerRepository.save(new Passenger("Han", "Solo", "123 123 123"));
+        Passenger leia = passengerRepository.save(new Passenger("Leia", "Organa", "321 321 321"));
+        Passenger luke = passengerRepository.save(new Passenger("Luke", "Skywalker", "111 111 111"));
+        List.of(luke, han, leia).forEach(flight::addPassenger);
+
+        // when + then
+        mockMvc.perform(get("/flights/" + flight.getId() + "/passengers?size=2"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.size()", Matchers.is(2)))
+                .andExpect(jsonPath("$[0].name", Matchers.is("Han")))
+                .andExpect(jsonPath("$[1].name", Matchers.is("Leia")));
+        mockMvc.perform(get("/flights/" + flight.getId() + "/passengers?page=1&size=2"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.size()", Matchers.is(1)))
+                .andExpect(jsonPath("$[0].id", Matchers.is(luke.getId())))
+                .andExpect(jsonPath("$[0].phone", Matchers.is("111 111 111")));
+    }
+
+    @Test
+    @Transactional
+    void shouldReadFlightPassengersSortedBySurname() throws Exception {
+        // given
+        Flight flight = createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(2), 100);
+        Passenger han = passengerRepository.save(new Passenger("Han", "Solo", "123 123 123"));
+        Passenger leia = passengerRepository.save(new Passenger("Leia", "Organa", "321 321 321"));
+        Passenger luke = passengerRepository.save(new Passenger("Luke", "Skywalker", "111 111 111"));
+        List.of(luke, han, leia).forEach(flight::addPassenger);
+
+        // when + then
+        mockMvc.perform(get("/flights/" + flight.getId() + "/passengers?sort=surname,desc"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$[*].id", Matchers.contains(han.getId(), luke.getId(), leia.getId())));
+        mockMvc.perform(get("/flights/" + flight.getId() + "/passengers?sort=fingerprint"))
+                .andExpect(status().is(400))
+                .andExpect(jsonPath("$.error", Matchers.is("Cannot sort by fingerprint, allowed: id, name, phone, surname")));
+    }
+
+    @Test
+    void readFlightPassengers_shouldThrowFlightNotFoundException() throws Exception {
+        // given
+        int id = 39;
+
+        // when + then
+        mockMvc.perform(get("/flights/" + id + "/passengers"))
+                .andExpect(status().is(404))
+                .andExpect(jsonPath("$.error", Matchers.is("Flight with id = " + id + " not found")));
+    }
+
     @Test
     void findFlightById_shouldThrowFlightNotFoundException() throws Exception {
         // given
@@ -180,6 +560,7 @@ class FlightControllerTest {
                 .andExpect(jsonPath("$.passengers[0].name", Matchers.is(passenger.getName())))
                 .andExpect(jsonPath("$.passengers[0].surname", Matchers.is(passenger.getSurname())))
                 .andExpect(jsonPath("$.passengers[0].phone", Matchers.is(passenger.getPhone())))
+                .andExpect(jsonPath("$.passengers[0].version").doesNotExist())
                 .andExpect(jsonPath("$.passengers.size()", Matchers.is(1)));
     }
 
@@ -240,6 +621,30 @@ class FlightControllerTest {
                         .is("No available seats on flight number LO" + flight.getNumber() + ".")));
     }
 
+    @Test
+    void addPassengerToFlight_shouldRecordRejectionAndSqlStatementMetrics() throws Exception {
+        // given
+        Flight flight = createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(2), 0);
+        Passenger passenger = passengerRepository.save(new Passenger("Han", "Solo", "123 123 123"));
+        double rejectedBefore = rejectedBookings();
+        long requestsBefore = sqlStatementsSummary("PATCH", "/flights/add/{flightId}/{passengerId}").count();
+
+        try {
+            // when
+            mockMvc.perform(patch("/flights/add/" + flight.getId() + "/" + passenger.getId()).contentType("application/json"))
+                    .andExpect(status().is(400));
+
+            // then
+            assertEquals(rejectedBefore + 1, rejectedBookings());
+            DistributionSummary statements = sqlStatementsSummary("PATCH", "/flights/add/{flightId}/{passengerId}");
+            assertEquals(requestsBefore + 1, statements.count());
+            assertTrue(statements.max() >= 2);
+        } finally {
+            flightRepository.delete(flight);
+            passengerRepository.delete(passenger);
+        }
+    }
+
     @Test
     @Transactional
     void shouldDeletePassengerFromFlight() throws Exception {
@@ -330,14 +735,125 @@ class FlightControllerTest {
         MvcResult mvcResult = mockMvc.perform(get("/flights/search?route=Warsaw&availableSeats=50"))
                 .andExpect(status().is(200))
                 .andExpect(jsonPath("$[0].number", Matchers.is(flightOne.getNumber())))
+                .andExpect(jsonPath("$[0].passengerCount", Matchers.is(0)))
+                .andExpect(jsonPath("$[0].passengers").doesNotExist())
                 .andReturn();
 
-        Flight[] result = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), Flight[].class);
+        FlightSummaryDTO[] result = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), FlightSummaryDTO[].class);
 
         // then
         assertEquals(1, result.length);
     }
 
+    @Test
+    @Transactional
+    void searchFlights_shouldIncludePassengersWhenExpanded() throws Exception {
+        // given
+        Flight flight = createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(15), 100);
+        flight.addPassenger(passengerRepository.save(new Passenger("Han", "Solo", "123 123 123")));
+
+        // when + then
+        mockMvc.perform(get("/flights/search?route=Warsaw&expand=passengers"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.size()", Matchers.is(1)))
+                .andExpect(jsonPath("$[0].passengers.size()", Matchers.is(1)))
+                .andExpect(jsonPath("$[0].passengers[0].name", Matchers.is("Han")));
+    }
+
+    @Test
+    @Transactional
+    void searchFlights_shouldMatchRouteLiterally() throws Exception {
+        // given
+        createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(15), 100);
+
+        // when + then
+        mockMvc.perform(get("/flights/search?route=%25"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.size()", Matchers.is(0)));
+    }
+
+    @Test
+    @Transactional
+    void searchFlights_byOriginAndDestination() throws Exception {
+        // given
+        createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(15), 100);
+        Flight flightTwo = createEmptyFlight(12, "Warsaw - Chicago", LocalDateTime.now().plusDays(1), 20);
+
+        // when + then
+        mockMvc.perform(get("/flights/search?origin=Warsaw&destination=Chi"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.size()", Matchers.is(1)))
+                .andExpect(jsonPath("$[0].number", Matchers.is(flightTwo.getNumber())));
+    }
+
+    @Test
+    @Transactional
+    void searchFlights_shouldReturnRequestedPageOrderedByDeparture() throws Exception {
+        // given
+        createEmptyFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(15), 100);
+        createEmptyFlight(2, "Chicago - Warsaw", LocalDateTime.now().plusDays(5), 100);
+        createEmptyFlight(3, "Chicago - Warsaw", LocalDateTime.now().plusDays(10), 100);
+
+        // when + then
+        mockMvc.perform(get("/flights/search?origin=Chicago&page=1&size=1"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.size()", Matchers.is(1)))
+                .andExpect(jsonPath("$[0].number", Matchers.is(3)));
+    }
+
+    @Test
+    void suggestRoutes_shouldReturnDistinctRoutesStartingWithPrefixByFlightCount() throws Exception {
+        // given
+        List<Integer> ids = new ArrayList<>();
+        for (String route : List.of("Zanzibar - Oslo", "Zagreb - Rome", "Zagreb - Oslo", "zagreb - rome")) {
+            FlightDTO flight = new FlightDTO(0, 7, route, LocalDateTime.now().plusDays(3), 10, null);
+            MvcResult result = mockMvc.perform(post("/flights").contentType("application/json").content(objectMapper.writeValueAsString(flight)))
+                    .andExpect(status().is(201))
+                    .andReturn();
+            ids.add(objectMapper.readValue(result.getResponse().getContentAsString(), FlightDTO.class).id());
+        }
+
+        try {
+            // when + then
+            mockMvc.perform(get("/flights/routes/suggest?prefix=ZA"))
+                    .andExpect(status().is(200))
+                    .andExpect(jsonPath("$", Matchers.contains("Zagreb - Rome", "Zagreb - Oslo", "Zanzibar - Oslo")));
+            mockMvc.perform(get("/flights/routes/suggest?prefix=zag&limit=1"))
+                    .andExpect(jsonPath("$", Matchers.contains("Zagreb - Rome")));
+            String moved = """
+                    {
+                        "number": 7,
+                        "route": "Zanzibar - Oslo",
+                        "departure": "2030-06-01T12:00:00",
+                        "availableSeats": 10
+                    }
+                    """;
+            mockMvc.perform(put("/flights/" + ids.get(1)).contentType("application/json").content(moved))
+                    .andExpect(status().is(200));
+            mockMvc.perform(get("/flights/routes/suggest?prefix=za"))
+                    .andExpect(jsonPath("$", Matchers.contains("Zanzibar - Oslo", "Zagreb - Oslo", "Zagreb - Rome")));
+        } finally {
+            for (int id : ids) {
+                mockMvc.perform(delete("/flights/" + id)).andExpect(status().is(204));
+            }
+        }
+        mockMvc.perform(get("/flights/routes/suggest?prefix=za"))
+                .andExpect(jsonPath("$.size()", Matchers.is(0)));
+    }
+
+    private double rejectedBookings() {
+        Counter rejected = meterRegistry.find("flights.bookings.rejected")
+                .tags("operation", "add", "exception", "NoAvailableSeatsException")
+                .counter();
+        return rejected != null ? rejected.count() : 0;
+    }
+
+    private DistributionSummary sqlStatementsSummary(String method, String uri) {
+        return DistributionSummary.builder(SqlStatementMetricsFilter.SQL_STATEMENTS_METRIC)
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry);
+    }
+
     private Flight createEmptyFlight(int number, String route, LocalDateTime departure, int availableSeats) {
         Set<Passenger> passengers = new HashSet<>();
         Flight flight = new Flight(number, route, departure, availableSeats, passengers);
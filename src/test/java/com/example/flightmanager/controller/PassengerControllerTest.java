@@ -1,22 +1,38 @@
 package com.example.flightmanager.controller;
 
+import com.example.flightmanager.CacheConfig;
+import com.example.flightmanager.dto.PassengerDTO;
+import com.example.flightmanager.model.Flight;
 import com.example.flightmanager.model.Passenger;
+import com.example.flightmanager.repository.FlightRepository;
 import com.example.flightmanager.repository.PassengerRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import jakarta.persistence.EntityManagerFactory;
 import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -27,7 +43,142 @@ class PassengerControllerTest {
     @Autowired
     private PassengerRepository passengerRepository;
     @Autowired
+    private FlightRepository flightRepository;
+    @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void clearCache() {
+        cacheManager.getCache(CacheConfig.PASSENGERS).clear();
+    }
+
+    @Test
+    @Transactional
+    void shouldImportPassengersInBatches() throws Exception {
+        // given
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 120; i++) {
+            ndjson.append(objectMapper.writeValueAsString(new Passenger("Name" + i, "Surname" + i, "000 000 " + i))).append('\n');
+        }
+        ndjson.append("{\"name\": \"\", \"surname\": \"Solo\", \"phone\": \"123 456 789\"}\n");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        mockMvc.perform(post("/passengers/import").contentType(MediaType.APPLICATION_NDJSON).content(ndjson.toString()))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.imported", Matchers.is(120)))
+                .andExpect(jsonPath("$.rejected", Matchers.is(1)))
+                .andExpect(jsonPath("$.errors[0]", Matchers.is("Row 121: Name cannot be an empty field.")));
+
+        // then
+        assertEquals(120, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 10);
+        assertEquals(120, passengerRepository.findAll().size());
+    }
+
+    @Test
+    @Transactional
+    void shouldImportPassengersFromCsv() throws Exception {
+        // given
+        String csv = """
+                name,surname,phone
+                Han,Solo,123 456 789
+                Leia,Organa,789 456 123
+                """;
+
+        // when + then
+        mockMvc.perform(post("/passengers/import").contentType("text/csv").content(csv))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.imported", Matchers.is(2)))
+                .andExpect(jsonPath("$.rejected", Matchers.is(0)));
+        assertEquals(2, passengerRepository.findAll().size());
+    }
+
+    @Test
+    void importPassengers_shouldResponseBadRequest_malformedInput() throws Exception {
+        // when + then
+        mockMvc.perform(post("/passengers/import").contentType(MediaType.APPLICATION_JSON).content("[{\"name\": \"Han\",]"))
+                .andExpect(status().is(400))
+                .andExpect(jsonPath("$.error", Matchers.startsWith("Row at line 1 is not valid")));
+        assertEquals(0, passengerRepository.findAll().size());
+    }
+
+    @Test
+    @Transactional
+    void searchPassengers_byNormalizedPhoneAndNamePrefix() throws Exception {
+        // given
+        Passenger han = passengerRepository.save(new Passenger("Han", "Solo", "+48 123 456 789"));
+        Passenger ben = passengerRepository.save(new Passenger("Ben", "Solo", "987 654 321"));
+        passengerRepository.save(new Passenger("Leia", "Organa", "123 456 780"));
+
+        // when + then
+        mockMvc.perform(get("/passengers/search?phone=48-123-456-789"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$[*].id", Matchers.contains(han.getId())));
+        mockMvc.perform(get("/passengers/search?surname=SO"))
+                .andExpect(jsonPath("$[*].id", Matchers.contains(ben.getId(), han.getId())));
+        mockMvc.perform(get("/passengers/search?surname=so&name=h"))
+                .andExpect(jsonPath("$[*].id", Matchers.contains(han.getId())));
+        mockMvc.perform(get("/passengers/search?surname=so&page=1&size=1"))
+                .andExpect(jsonPath("$[*].id", Matchers.contains(han.getId())));
+        mockMvc.perform(get("/passengers/search?name=HAN"))
+                .andExpect(jsonPath("$[*].id", Matchers.contains(han.getId())));
+    }
+
+    @Test
+    @Transactional
+    void addNewPassenger_shouldRejectDuplicateAndUpsertShouldReturnExisting() throws Exception {
+        // given
+        Passenger han = passengerRepository.save(new Passenger("Han", "Solo", "123 456 789"));
+        String duplicate = """
+                {
+                    "name": " HAN",
+                    "surname": "solo",
+                    "phone": "123-456-789"
+                }
+                """;
+
+        // when + then
+        mockMvc.perform(post("/passengers").contentType("application/json").content(duplicate))
+                .andExpect(status().is(400))
+                .andExpect(jsonPath("$.error", Matchers.is("Passenger Han Solo with phone 123 456 789 already exists with id = " + han.getId() + ".")));
+        mockMvc.perform(post("/passengers?upsert=true").contentType("application/json").content(duplicate))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.id", Matchers.is(han.getId())));
+        mockMvc.perform(post("/passengers?upsert=true").contentType("application/json")
+                        .content("{\"name\": \"Leia\", \"surname\": \"Organa\", \"phone\": \"321\"}"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.id", Matchers.not(han.getId())));
+        assertEquals(2, passengerRepository.findAll().size());
+    }
+
+    @Test
+    @Transactional
+    void importPassengers_shouldRejectDuplicates() throws Exception {
+        // given
+        passengerRepository.save(new Passenger("Han", "Solo", "123 456 789"));
+        String csv = """
+                name,surname,phone
+                Han,Solo,123 456 789
+                Leia,Organa,789 456 123
+                leia,ORGANA,789-456-123
+                """;
+
+        // when + then
+        mockMvc.perform(post("/passengers/import").contentType("text/csv").content(csv))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.imported", Matchers.is(1)))
+                .andExpect(jsonPath("$.rejected", Matchers.is(2)))
+                .andExpect(jsonPath("$.errors[0]", Matchers.is("Row 1: Duplicate passenger with fingerprint "
+                        + Passenger.fingerprint("Han", "Solo", "123 456 789") + ".")))
+                .andExpect(jsonPath("$.errors[1]", Matchers.startsWith("Row 3: Duplicate passenger with fingerprint")));
+        assertEquals(2, passengerRepository.findAll().size());
+    }
 
     @Test
     @Transactional
@@ -50,6 +201,27 @@ class PassengerControllerTest {
                 .andExpect(jsonPath("$.phone", Matchers.is("123 456 789")));
     }
 
+    @Test
+    @Transactional
+    void shouldAddNewPassengerAsCbor() throws Exception {
+        // given
+        CBORMapper cborMapper = new CBORMapper();
+        byte[] cborPassenger = cborMapper.writeValueAsBytes(new PassengerDTO(0, "Han", "Solo", "123 456 789"));
+
+        // when
+        MvcResult mvcResult = mockMvc.perform(post("/passengers").contentType("application/cbor").content(cborPassenger)
+                        .accept("application/cbor"))
+                .andExpect(status().is(201))
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        // then
+        PassengerDTO result = cborMapper.readValue(mvcResult.getResponse().getContentAsByteArray(), PassengerDTO.class);
+        assertEquals("Han", result.name());
+        assertEquals("Solo", result.surname());
+        assertEquals("123 456 789", result.phone());
+    }
+
     @Test
     @Transactional
     void addNewPassenger_shouldResponseBadRequest_emptyName() throws Exception {
@@ -87,6 +259,64 @@ class PassengerControllerTest {
         assertEquals(2, result.length);
     }
 
+    @Test
+    void shouldStreamAllPassengersAsNdjson() throws Exception {
+        // given
+        List<Passenger> passengers = List.of(
+                createPassenger("Anakin", "Skywalker", "111 111 111"),
+                createPassenger("Jango", "Fett", "222 222 222"));
+
+        try {
+            // when
+            MvcResult asyncResult = mockMvc.perform(get("/passengers").accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String content = mockMvc.perform(asyncDispatch(asyncResult))
+                    .andExpect(status().is(200))
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            // then
+            String[] lines = content.split("\n");
+            assertEquals(2, lines.length);
+            assertEquals("Anakin", objectMapper.readValue(lines[0], Passenger.class).getName());
+            assertEquals("Jango", objectMapper.readValue(lines[1], Passenger.class).getName());
+        } finally {
+            passengers.forEach(passengerRepository::delete);
+        }
+    }
+
+    @Test
+    @Transactional
+    void shouldScrollPassengersWithCursor() throws Exception {
+        // given
+        createPassenger("Anakin", "Skywalker", "111 111 111");
+        createPassenger("Jango", "Fett", "222 222 222");
+        createPassenger("Han", "Solo", "333 333 333");
+
+        // when
+        MvcResult firstPage = mockMvc.perform(get("/passengers/scroll?size=2"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.content.size()", Matchers.is(2)))
+                .andExpect(jsonPath("$.content[0].name", Matchers.is("Anakin")))
+                .andReturn();
+        String cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        // then
+        mockMvc.perform(get("/passengers/scroll?size=2&cursor=" + cursor))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.content.size()", Matchers.is(1)))
+                .andExpect(jsonPath("$.content[0].name", Matchers.is("Han")))
+                .andExpect(jsonPath("$.nextCursor").value(Matchers.nullValue()));
+    }
+
+    @Test
+    void scrollPassengers_shouldResponseBadRequest_sizeOutOfRange() throws Exception {
+        // when + then
+        mockMvc.perform(get("/passengers/scroll?size=0"))
+                .andExpect(status().is(400));
+    }
+
     @Test
     @Transactional
     void shouldFindPassengerById() throws Exception {
@@ -102,6 +332,37 @@ class PassengerControllerTest {
                 .andExpect(jsonPath("$.phone", Matchers.is(passenger.getPhone())));
     }
 
+    @Test
+    @Transactional
+    void findPassengerById_shouldResponseNotModifiedUntilPassengerIsUpdated() throws Exception {
+        // given
+        Passenger passenger = createPassenger("Jango", "Fett", "222 222 222");
+        String etag = mockMvc.perform(get("/passengers/" + passenger.getId()))
+                .andExpect(status().is(200))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String jsonPassenger = """
+                {
+                    "name": "Boba",
+                    "surname": "Fett",
+                    "phone": "222 222 222"
+                }
+                """;
+
+        // when
+        mockMvc.perform(get("/passengers/" + passenger.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().is(304))
+                .andExpect(content().string(""));
+        mockMvc.perform(put("/passengers/" + passenger.getId()).contentType("application/json").content(jsonPassenger))
+                .andExpect(status().is(200));
+
+        // then
+        mockMvc.perform(get("/passengers/" + passenger.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().is(200))
+                .andExpect(header().string(HttpHeaders.ETAG, Matchers.not(etag)))
+                .andExpect(jsonPath("$.name", Matchers.is("Boba")));
+    }
+
     @Test
     @Transactional
     void findPassengerById_shouldThrowPassengerNotFoundException() throws Exception {
@@ -136,6 +397,35 @@ class PassengerControllerTest {
                 .andExpect(jsonPath("$.phone", Matchers.is("123 456 789")));
     }
 
+    @Test
+    @Transactional
+    void updatePassenger_shouldEvictCachedPassenger() throws Exception {
+        // given
+        Passenger passenger = createPassenger("Jango", "Fett", "222 222 222");
+        mockMvc.perform(get("/passengers/" + passenger.getId()))
+                .andExpect(status().is(200));
+        Cache passengers = cacheManager.getCache(CacheConfig.PASSENGERS);
+        assertNotNull(passengers.get(passenger.getId()));
+
+        String jsonPassenger = """
+                {
+                	"name": "Boba",
+                    "surname": "Fett",
+                    "phone": "222 222 222"
+                }
+                """;
+
+        // when
+        mockMvc.perform(put("/passengers/" + passenger.getId()).contentType("application/json").content(jsonPassenger))
+                .andExpect(status().is(200));
+
+        // then
+        assertNull(passengers.get(passenger.getId()));
+        mockMvc.perform(get("/passengers/" + passenger.getId()))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.name", Matchers.is("Boba")));
+    }
+
     @Test
     @Transactional
     void updatePassenger_shouldThrowPassengerNotFoundException() throws Exception {
@@ -178,6 +468,59 @@ class PassengerControllerTest {
                 .andExpect(jsonPath("$.error", Matchers.is("Passenger with id = " + id + " not found")));
     }
 
+    @Test
+    @Transactional
+    void shouldReadPassengerFlightsOrderedByDeparture() throws Exception {
+        // given
+        Passenger passenger = createPassenger("Han", "Solo", "123 123 123");
+        Flight later = flightRepository.save(new Flight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(5), 100, new HashSet<>()));
+        Flight earlier = flightRepository.save(new Flight(2, "Warsaw - Oslo", LocalDateTime.now().plusDays(2), 100, new HashSet<>()));
+        flightRepository.save(new Flight(3, "Oslo - Berlin", LocalDateTime.now().plusDays(3), 100, new HashSet<>()));
+        later.addPassenger(passenger);
+        earlier.addPassenger(passenger);
+
+        // when + then
+        mockMvc.perform(get("/passengers/" + passenger.getId() + "/flights"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.size()", Matchers.is(2)))
+                .andExpect(jsonPath("$[0].number", Matchers.is(earlier.getNumber())))
+                .andExpect(jsonPath("$[0].passengerCount", Matchers.is(1)))
+                .andExpect(jsonPath("$[1].number", Matchers.is(later.getNumber())));
+    }
+
+    @Test
+    @Transactional
+    void shouldPagePassengerFlightsWithSameDepartureById() throws Exception {
+        // given
+        Passenger passenger = createPassenger("Han", "Solo", "123 123 123");
+        LocalDateTime departure = LocalDateTime.now().plusDays(2).withNano(0);
+        Flight first = flightRepository.save(new Flight(1, "Chicago - Warsaw", departure, 100, new HashSet<>()));
+        Flight second = flightRepository.save(new Flight(2, "Warsaw - Oslo", departure, 100, new HashSet<>()));
+        Flight third = flightRepository.save(new Flight(3, "Oslo - Berlin", departure, 100, new HashSet<>()));
+        List.of(third, first, second).forEach(flight -> flight.addPassenger(passenger));
+
+        // when + then
+        mockMvc.perform(get("/passengers/" + passenger.getId() + "/flights?size=2"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$[*].id", Matchers.contains(first.getId(), second.getId())));
+        mockMvc.perform(get("/passengers/" + passenger.getId() + "/flights?page=1&size=2"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$[*].id", Matchers.contains(third.getId())));
+        mockMvc.perform(get("/passengers/" + passenger.getId() + "/flights?sort=passengers"))
+                .andExpect(status().is(400));
+    }
+
+    @Test
+    void readPassengerFlights_shouldThrowPassengerNotFoundException() throws Exception {
+        // given
+        int id = 13;
+
+        // when + then
+        mockMvc.perform(get("/passengers/" + id + "/flights"))
+                .andExpect(status().is(404))
+                .andExpect(jsonPath("$.error", Matchers.is("Passenger with id = " + id + " not found")));
+    }
+
     private Passenger createPassenger(String name, String surname, String phone) {
         Passenger passenger = new Passenger(name, surname, phone);
         return passengerRepository.save(passenger);
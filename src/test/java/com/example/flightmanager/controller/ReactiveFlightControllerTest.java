@@ -0,0 +1,133 @@
+package com.example.flightmanager.controller;
+
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.model.Flight;
+import com.example.flightmanager.repository.FlightRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("reactive")
+class ReactiveFlightControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private FlightRepository flightRepository;
+
+    private final List<Flight> flights = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        flights.forEach(flightRepository::delete);
+    }
+
+    @Test
+    void shouldReadFlightSummariesPage() {
+        // given
+        createFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(1));
+        createFlight(2, "Warsaw - Oslo", LocalDateTime.now().plusDays(2));
+        createFlight(3, "Warsaw - London", LocalDateTime.now().plusDays(3));
+
+        // when
+        List<FlightSummaryDTO> result = webTestClient.get().uri("/flights?page=1&size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(FlightSummaryDTO.class)
+                .returnResult().getResponseBody();
+
+        // then
+        assertEquals(1, result.size());
+        assertEquals(3, result.get(0).number());
+    }
+
+    @Test
+    void shouldStreamFlightSummariesAsNdjson() {
+        // given
+        createFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(1));
+        createFlight(2, "Warsaw - Oslo", LocalDateTime.now().plusDays(2));
+
+        // when
+        List<FlightSummaryDTO> result = webTestClient.get().uri("/flights")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(FlightSummaryDTO.class)
+                .getResponseBody().collectList().block();
+
+        // then
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    void shouldSearchFlightsByOriginAndRoute() {
+        // given
+        createFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(1));
+        createFlight(2, "Warsaw - Oslo", LocalDateTime.now().plusDays(3));
+        createFlight(3, "Warsaw - London", LocalDateTime.now().plusDays(2));
+
+        // when
+        List<FlightSummaryDTO> byOrigin = webTestClient.get().uri("/flights/search?origin=Warsaw")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(FlightSummaryDTO.class)
+                .returnResult().getResponseBody();
+        List<FlightSummaryDTO> byRoute = webTestClient.get().uri("/flights/search?route=Oslo")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(FlightSummaryDTO.class)
+                .returnResult().getResponseBody();
+
+        // then
+        assertEquals(List.of(3, 2), byOrigin.stream().map(FlightSummaryDTO::number).toList());
+        assertEquals(List.of(2), byRoute.stream().map(FlightSummaryDTO::number).toList());
+    }
+
+    @Test
+    void shouldSortFlightSummariesByRequestedColumn() {
+        // given
+        createFlight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(1));
+        createFlight(2, "Warsaw - Oslo", LocalDateTime.now().plusDays(3));
+        createFlight(3, "Warsaw - London", LocalDateTime.now().plusDays(2));
+
+        // when
+        List<FlightSummaryDTO> byNumber = webTestClient.get().uri("/flights?sort=number,desc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(FlightSummaryDTO.class)
+                .returnResult().getResponseBody();
+        List<FlightSummaryDTO> byRoute = webTestClient.get().uri("/flights/search?origin=Warsaw&sort=route")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(FlightSummaryDTO.class)
+                .returnResult().getResponseBody();
+
+        // then
+        assertEquals(List.of(3, 2, 1), byNumber.stream().map(FlightSummaryDTO::number).toList());
+        assertEquals(List.of(3, 2), byRoute.stream().map(FlightSummaryDTO::number).toList());
+        webTestClient.get().uri("/flights?sort=passengers")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Cannot sort by passengers, allowed: availableSeats, departure, destination, id, number, origin, route");
+    }
+
+    private void createFlight(int number, String route, LocalDateTime departure) {
+        flights.add(flightRepository.save(new Flight(number, route, departure, 100, new HashSet<>())));
+    }
+}
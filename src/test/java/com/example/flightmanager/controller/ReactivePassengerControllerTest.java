@@ -0,0 +1,60 @@
+package com.example.flightmanager.controller;
+
+import com.example.flightmanager.dto.PassengerDTO;
+import com.example.flightmanager.model.Passenger;
+import com.example.flightmanager.repository.PassengerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("reactive")
+class ReactivePassengerControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Test
+    void shouldFindPassengerById() {
+        // given
+        Passenger passenger = passengerRepository.save(new Passenger("Han", "Solo", "123 456 789"));
+
+        try {
+            // when + then
+            webTestClient.get().uri("/passengers/" + passenger.getId())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(PassengerDTO.class)
+                    .isEqualTo(new PassengerDTO(passenger.getId(), "Han", "Solo", "123 456 789"));
+        } finally {
+            passengerRepository.delete(passenger);
+        }
+    }
+
+    @Test
+    void findPassengerById_shouldThrowPassengerNotFoundException() {
+        // when + then
+        webTestClient.get().uri("/passengers/13")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").value(is("Passenger with id = 13 not found"));
+    }
+
+    @Test
+    void readAllPassengers_shouldRejectUnsupportedSort() {
+        // when + then
+        webTestClient.get().uri("/passengers?sort=fingerprint")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").value(is("Cannot sort by fingerprint, allowed: id, name, phone, surname"));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.flightmanager.service;
+
+import com.example.flightmanager.exception.DuplicatePassengerException;
+import com.example.flightmanager.exception.NoAvailableSeatsException;
+import com.example.flightmanager.model.Flight;
+import com.example.flightmanager.model.Passenger;
+import com.example.flightmanager.repository.BookingJournal;
+import com.example.flightmanager.repository.FlightRepository;
+import com.example.flightmanager.repository.PassengerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-behind;DB_CLOSE_DELAY=-1",
+        "flight-manager.booking-journal.flush-interval=1h"
+})
+@ActiveProfiles("write-behind")
+class BookingPipelineTest {
+
+    @Autowired
+    private BookingPipeline bookingPipeline;
+    @Autowired
+    private BookingJournal bookingJournal;
+    @Autowired
+    private FlightService flightService;
+    @Autowired
+    private FlightRepository flightRepository;
+    @Autowired
+    private PassengerRepository passengerRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private PassengerService passengerService;
+    @Autowired
+    private PendingBookings pendingBookings;
+    @Autowired
+    private SeatReservationService seatReservationService;
+    @Autowired
+    private DepartureIndex departureIndex;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Flight flight;
+    private final List<Passenger> passengers = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void journalPath(DynamicPropertyRegistry registry) throws IOException {
+        String path = Files.createTempFile("bookings", ".journal").toString();
+        registry.add("flight-manager.booking-journal.path", () -> path);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        flightRepository.delete(flightRepository.findById(flight.getId()).orElseThrow());
+        passengers.forEach(passengerRepository::delete);
+    }
+
+    @Test
+    void book_shouldTakeSeatsInMemoryAndWriteThemWithPassengersOnFlush() {
+        // given
+        flight = flightRepository.save(new Flight(3, "Warsaw - Rome", LocalDateTime.now().plusDays(5), 2, new HashSet<>()));
+        savePassengers(3);
+
+        // when
+        bookingPipeline.book(flight.getId(), passengers.get(0).getId());
+        bookingPipeline.book(flight.getId(), passengers.get(1).getId());
+
+        // then
+        assertThrows(DuplicatePassengerException.class, () -> bookingPipeline.book(flight.getId(), passengers.get(0).getId()));
+        assertThrows(NoAvailableSeatsException.class, () -> bookingPipeline.book(flight.getId(), passengers.get(2).getId()));
+        assertThrows(DuplicatePassengerException.class, () -> flightService.addPassenger(flight.getId(), passengers.get(0).getId()));
+        assertEquals(2, flightRepository.findById(flight.getId()).orElseThrow().getAvailableSeats());
+        assertFalse(flightRepository.containsPassenger(flight.getId(), passengers.get(0).getId()));
+        assertEquals(2, bookingJournal.pending(Integer.MAX_VALUE).size());
+
+        bookingPipeline.flush();
+
+        assertEquals(0, flightRepository.findById(flight.getId()).orElseThrow().getAvailableSeats());
+        assertTrue(flightRepository.containsPassenger(flight.getId(), passengers.get(0).getId()));
+        assertTrue(flightRepository.containsPassenger(flight.getId(), passengers.get(1).getId()));
+        assertTrue(bookingJournal.pending(Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void flush_shouldReleaseSeatOfBookingStoredInTheMeantime() {
+        // given
+        flight = flightRepository.save(new Flight(4, "Warsaw - Paris", LocalDateTime.now().plusDays(5), 3, new HashSet<>()));
+        savePassengers(4);
+        flightService.addPassenger(flight.getId(), passengers.get(0).getId());
+        bookingPipeline.book(flight.getId(), passengers.get(0).getId());
+        bookingPipeline.book(flight.getId(), passengers.get(1).getId());
+        double dropped = meterRegistry.counter(BookingPipeline.DROPPED_METRIC).count();
+
+        // when
+        bookingPipeline.flush();
+
+        // then
+        assertEquals(1, flightRepository.findById(flight.getId()).orElseThrow().getAvailableSeats());
+        assertTrue(flightRepository.containsPassenger(flight.getId(), passengers.get(1).getId()));
+        assertEquals(dropped, meterRegistry.counter(BookingPipeline.DROPPED_METRIC).count());
+        assertTrue(bookingJournal.pending(Integer.MAX_VALUE).isEmpty());
+        bookingPipeline.book(flight.getId(), passengers.get(2).getId());
+        assertThrows(NoAvailableSeatsException.class, () -> bookingPipeline.book(flight.getId(), passengers.get(3).getId()));
+        bookingPipeline.flush();
+    }
+
+    @Test
+    void flush_shouldTreatReplayedBookingsThatAreAlreadyStoredAsApplied() throws InterruptedException {
+        // given
+        flight = flightRepository.save(new Flight(5, "Warsaw - Oslo", LocalDateTime.now().plusDays(5), 5, new HashSet<>()));
+        savePassengers(2);
+        bookingPipeline.book(flight.getId(), passengers.get(0).getId());
+        bookingPipeline.book(flight.getId(), passengers.get(1).getId());
+        seatReservationService.reserve(flight, passengers.get(0));
+        BookingPipeline restarted = new BookingPipeline(flightRepository, passengerService, bookingJournal, pendingBookings,
+                departureIndex, transactionManager, cacheManager, meterRegistry, 500, Duration.ofHours(1));
+        double dropped = meterRegistry.counter(BookingPipeline.DROPPED_METRIC).count();
+
+        // when
+        restarted.flush();
+
+        // then
+        assertEquals(3, flightRepository.findById(flight.getId()).orElseThrow().getAvailableSeats());
+        assertTrue(flightRepository.containsPassenger(flight.getId(), passengers.get(1).getId()));
+        assertEquals(dropped, meterRegistry.counter(BookingPipeline.DROPPED_METRIC).count());
+        assertTrue(bookingJournal.pending(Integer.MAX_VALUE).isEmpty());
+        restarted.shutdown();
+    }
+
+    private void savePassengers(int count) {
+        for (int i = 0; i < count; i++) {
+            passengers.add(passengerRepository.save(new Passenger("Name" + i, "Surname" + i, "111 111 " + i)));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.flightmanager.service;
+
+import com.example.flightmanager.dto.FlightDTO;
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.model.Flight;
+import com.example.flightmanager.model.Passenger;
+import com.example.flightmanager.repository.FlightRepository;
+import com.example.flightmanager.repository.PassengerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:departure-index;DB_CLOSE_DELAY=-1",
+        "flight-manager.departure-index.enabled=true",
+        "flight-manager.departure-index.reload-interval=1h"
+})
+class DepartureIndexTest {
+
+    @Autowired
+    private FlightService flightService;
+    @SpyBean
+    private FlightRepository flightRepository;
+    @Autowired
+    private PassengerRepository passengerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Integer> flightIds = new ArrayList<>();
+    private Passenger passenger;
+
+    @AfterEach
+    void cleanUp() {
+        flightIds.forEach(flightService::deleteFlight);
+        passengerRepository.delete(passenger);
+    }
+
+    @Test
+    void searchSummaries_shouldServeUpcomingFlightsFromIndexAndFollowWrites() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        FlightDTO later = addFlight(1, now.plusDays(3), 1);
+        FlightDTO sooner = addFlight(2, now.plusDays(1), 5);
+        FlightDTO moved = addFlight(3, now.plusDays(2), 5);
+        passenger = passengerRepository.save(new Passenger("Han", "Solo", "123 123 123"));
+        flightService.addPassenger(later.id(), passenger.getId());
+        flightService.updateFlight(moved.id(), new Flight(3, "Warsaw - Oslo", now.plusDays(4), 5, null));
+        Pageable page = PageRequest.of(0, 10, Sort.by("departure"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        List<FlightSummaryDTO> all = flightService.searchSummaries(null, null, null, null, null, null, page);
+        List<FlightSummaryDTO> withSeats = flightService.searchSummaries(null, null, null, null, null, 1, page);
+        List<FlightSummaryDTO> untilThird = flightService.searchSummaries(null, null, null, null, now.plusDays(3).plusHours(1), 0, page);
+        List<FlightSummaryDTO> afterFirst = flightService.searchSummaries(null, null, null, now.plusDays(1).plusHours(1), null, 0, page);
+
+        // then
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(List.of(sooner.id(), later.id(), moved.id()), all.stream().map(FlightSummaryDTO::id).toList());
+        assertEquals(1, all.get(1).passengerCount());
+        assertEquals(0, all.get(1).availableSeats());
+        assertEquals(List.of(sooner.id(), moved.id()), withSeats.stream().map(FlightSummaryDTO::id).toList());
+        assertEquals(List.of(sooner.id(), later.id()), untilThird.stream().map(FlightSummaryDTO::id).toList());
+        assertEquals(List.of(later.id(), moved.id()), afterFirst.stream().map(FlightSummaryDTO::id).toList());
+        assertEquals(List.of(sooner.id(), moved.id()), flightService.search(null, null, null, null, null, 1, page).stream().map(FlightDTO::id).toList());
+    }
+
+    @Test
+    void searchSummaries_shouldDropDeletedFlights() {
+        // given
+        FlightDTO flight = addFlight(4, LocalDateTime.now().plusDays(1), 5);
+        passenger = passengerRepository.save(new Passenger("Leia", "Organa", "321 321 321"));
+        flightService.deleteFlight(flight.id());
+        flightIds.clear();
+
+        // when
+        List<FlightSummaryDTO> result = flightService.searchSummaries(null, null, null, null, null, null, PageRequest.of(0, 10));
+
+        // then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void addPassenger_shouldSucceedWhenRefreshingTheIndexFails() {
+        // given
+        FlightDTO flight = addFlight(5, LocalDateTime.now().plusDays(1), 5);
+        passenger = passengerRepository.save(new Passenger("Luke", "Skywalker", "456 456 456"));
+        doThrow(new QueryTimeoutException("Timed out")).when(flightRepository).findSummariesByIdIn(anyCollection());
+
+        // when
+        FlightDTO result = flightService.addPassenger(flight.id(), passenger.getId());
+
+        // then
+        assertEquals(4, result.availableSeats());
+        assertTrue(flightRepository.containsPassenger(flight.id(), passenger.getId()));
+    }
+
+    private FlightDTO addFlight(int number, LocalDateTime departure, int availableSeats) {
+        FlightDTO flight = flightService.addFlight(new FlightDTO(0, number, "Warsaw - Oslo", departure, availableSeats, new HashSet<>()));
+        flightIds.add(flight.id());
+        return flight;
+    }
+}
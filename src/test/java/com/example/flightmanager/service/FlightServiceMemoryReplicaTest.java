@@ -0,0 +1,102 @@
+package com.example.flightmanager.service;
+
+import com.example.flightmanager.dto.FlightSummaryDTO;
+import com.example.flightmanager.model.Flight;
+import com.example.flightmanager.model.Passenger;
+import com.example.flightmanager.repository.FlightRepository;
+import com.example.flightmanager.repository.PassengerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:memory-replica;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("memory-replica")
+class FlightServiceMemoryReplicaTest {
+
+    @Autowired
+    private FlightService flightService;
+    @Autowired
+    private FlightRepository flightRepository;
+    @Autowired
+    private PassengerRepository passengerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Flight> flights = new ArrayList<>();
+    private final List<Passenger> passengers = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        flights.forEach(flight -> flightRepository.delete(flightRepository.findById(flight.getId()).orElseThrow()));
+        passengers.forEach(passenger -> passengerRepository.delete(passengerRepository.findById(passenger.getId()).orElseThrow()));
+    }
+
+    @Test
+    void reads_shouldBeServedFromMemoryAndReflectCommittedBookings() {
+        // given
+        Flight flight = save(new Flight(7, "Warsaw - Lisbon", LocalDateTime.now().plusDays(3), 10, new HashSet<>()));
+        Passenger passenger = passengerRepository.save(new Passenger("Han", "Solo", "123 123 123"));
+        passengers.add(passenger);
+        flightService.addPassenger(flight.getId(), passenger.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        List<FlightSummaryDTO> summaries = flightService.readAllFlightSummaries();
+        List<FlightSummaryDTO> found = flightService.searchSummaries("Lisbon", null, null, null, null, null, PageRequest.of(0, 10));
+        List<FlightSummaryDTO> passengerFlights = flightService.readPassengerFlights(passenger.getId(), PageRequest.of(0, 10));
+
+        // then
+        assertEquals(0, statistics.getPrepareStatementCount());
+        FlightSummaryDTO summary = summaries.stream().filter(s -> s.id() == flight.getId()).findFirst().orElseThrow();
+        assertEquals(9, summary.availableSeats());
+        assertEquals(1, summary.passengerCount());
+        assertEquals(List.of(flight.getId()), found.stream().map(FlightSummaryDTO::id).toList());
+        assertEquals(List.of(flight.getId()), passengerFlights.stream().map(FlightSummaryDTO::id).toList());
+    }
+
+    @Test
+    void search_shouldPageByDepartureFromMemory() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        Flight later = save(new Flight(8, "Gdansk - Madrid", now.plusDays(6), 10, new HashSet<>()));
+        Flight earlier = save(new Flight(9, "Gdansk - Malaga", now.plusDays(4), 10, new HashSet<>()));
+        Flight earliest = save(new Flight(10, "Gdansk - Malta", now.plusDays(2), 10, new HashSet<>()));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        List<FlightSummaryDTO> firstPage = flightService.searchSummaries(null, "Gdansk", "Ma", now, now.plusDays(5), null,
+                PageRequest.of(0, 1, Sort.by("departure")));
+        List<FlightSummaryDTO> secondPage = flightService.searchSummaries(null, "Gdansk", "Ma", now, now.plusDays(5), null,
+                PageRequest.of(1, 1, Sort.by("departure")));
+        List<FlightSummaryDTO> byRoute = flightService.searchSummaries("Gdansk", null, null, now, now.plusDays(7), null,
+                PageRequest.of(0, 10, Sort.by("departure")));
+
+        // then
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(List.of(earliest.getId()), firstPage.stream().map(FlightSummaryDTO::id).toList());
+        assertEquals(List.of(earlier.getId()), secondPage.stream().map(FlightSummaryDTO::id).toList());
+        assertEquals(List.of(earliest.getId(), earlier.getId(), later.getId()), byRoute.stream().map(FlightSummaryDTO::id).toList());
+    }
+
+    private Flight save(Flight flight) {
+        Flight saved = flightRepository.save(flight);
+        flights.add(saved);
+        return saved;
+    }
+}
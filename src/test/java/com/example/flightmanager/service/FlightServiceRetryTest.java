@@ -0,0 +1,90 @@
+package com.example.flightmanager.service;
+
+import com.example.flightmanager.dto.FlightDTO;
+import com.example.flightmanager.mapper.FlightMapper;
+import com.example.flightmanager.model.Flight;
+import com.example.flightmanager.repository.FlightRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:retry;DB_CLOSE_DELAY=-1")
+class FlightServiceRetryTest {
+
+    @Autowired
+    private FlightService flightService;
+    @Autowired
+    private FlightRepository flightRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @SpyBean
+    private FlightMapper flightMapper;
+
+    private Flight flight;
+
+    @AfterEach
+    void cleanUp() {
+        flightRepository.delete(flightRepository.findById(flight.getId()).orElseThrow());
+    }
+
+    @Test
+    void updateFlight_shouldRetryWhenFlightIsModifiedConcurrently() {
+        // given
+        flight = flightRepository.save(new Flight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(2), 100, new HashSet<>()));
+        bookSeatConcurrentlyDuringFirst(1);
+        double conflicts = meterRegistry.counter(OptimisticLockConflictListener.CONFLICTS_METRIC, "entity", "Flight").count();
+
+        // when
+        FlightDTO result = flightService.updateFlight(flight.getId(), new Flight(2, "Warsaw - Oslo", LocalDateTime.now().plusDays(3), 50, null));
+
+        // then
+        assertEquals(2, result.number());
+        assertEquals("Warsaw - Oslo", flightRepository.findById(flight.getId()).orElseThrow().getRoute());
+        verify(flightMapper, times(2)).entityToDto(any(Flight.class));
+        assertEquals(conflicts + 1, meterRegistry.counter(OptimisticLockConflictListener.CONFLICTS_METRIC, "entity", "Flight").count());
+    }
+
+    @Test
+    void updateFlight_shouldGiveUpAfterMaxAttempts() {
+        // given
+        flight = flightRepository.save(new Flight(1, "Chicago - Warsaw", LocalDateTime.now().plusDays(2), 100, new HashSet<>()));
+        bookSeatConcurrentlyDuringFirst(Integer.MAX_VALUE);
+
+        // when
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> flightService.updateFlight(flight.getId(), new Flight(2, "Warsaw - Oslo", LocalDateTime.now().plusDays(3), 50, null)));
+
+        // then
+        verify(flightMapper, times(4)).entityToDto(any(Flight.class));
+        assertEquals("Chicago - Warsaw", flightRepository.findById(flight.getId()).orElseThrow().getRoute());
+    }
+
+    private void bookSeatConcurrentlyDuringFirst(int attempts) {
+        TransactionTemplate otherTransaction = new TransactionTemplate(transactionManager);
+        otherTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger remaining = new AtomicInteger(attempts);
+        doAnswer(invocation -> {
+            if (remaining.getAndDecrement() > 0) {
+                otherTransaction.executeWithoutResult(status -> flightRepository.reserveSeats(flight.getId(), 1));
+            }
+            return invocation.callRealMethod();
+        }).when(flightMapper).entityToDto(any(Flight.class));
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.flightmanager.service;
 
+import com.example.flightmanager.dto.BookingResultDTO;
+import com.example.flightmanager.dto.FlightBookingDTO;
 import com.example.flightmanager.dto.FlightDTO;
 import com.example.flightmanager.exception.DuplicatePassengerException;
 import com.example.flightmanager.exception.FlightNotFoundException;
@@ -11,17 +13,25 @@ import com.example.flightmanager.model.Passenger;
 import com.example.flightmanager.repository.FlightRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +49,14 @@ class FlightServiceTest {
     private PassengerService passengerService;
     @Mock
     private FlightMapper flightMapper;
+    @Mock
+    private SeatReservationService seatReservationService;
+    @Mock
+    private DepartureIndex departureIndex;
+    @Mock
+    private RouteIndex routeIndex;
+    @Mock
+    private PendingBookings pendingBookings;
     @InjectMocks
     private FlightService flightService;
 
@@ -77,6 +95,24 @@ class FlightServiceTest {
         assertEquals(2, result.size());
     }
 
+    @Test
+    void shouldExportAllFlights() {
+        // given
+        Flight flightOne = new Flight();
+        Flight flightTwo = new Flight();
+        FlightDTO flightDTO = new FlightDTO(1, FLIGHT_NUMBER, FLIGHT_ROUTE, DEPARTURE, AVAILABLE_SEATS, PASSENGERS);
+        when(mockFlightRepository.streamAll()).thenReturn(Stream.of(flightOne, flightTwo));
+        when(flightMapper.entityToDto(any(Flight.class))).thenReturn(flightDTO);
+        List<FlightDTO> exported = new ArrayList<>();
+
+        // when
+        flightService.exportFlights(exported::add);
+
+        // then
+        assertEquals(2, exported.size());
+        verify(mockFlightRepository, times(1)).detachAll();
+    }
+
     @Test
     void shouldUpdateFlight() {
         // given
@@ -130,6 +166,41 @@ class FlightServiceTest {
         assertEquals(1, flight.getPassengers().size());
     }
 
+    @Test
+    void shouldReserveSeatWhenAddingPassenger() {
+        // given
+        int flightId = 1;
+        int passengerId = 3;
+        Flight flight = new Flight(FLIGHT_NUMBER, FLIGHT_ROUTE, DEPARTURE, AVAILABLE_SEATS, new HashSet<>());
+        Passenger passenger = new Passenger("Jan", "Nowak", "111 222 333");
+        when(mockFlightRepository.findById(flightId)).thenReturn(Optional.of(flight));
+        when(passengerService.getPassenger(passengerId)).thenReturn(passenger);
+
+        // when
+        flightService.addPassenger(flightId, passengerId);
+
+        // then
+        verify(seatReservationService, times(1)).reserve(flight, passenger);
+        verify(mockFlightRepository, never()).save(flight);
+        verify(mockFlightRepository, times(2)).findById(flightId);
+    }
+
+    @Test
+    void addPassenger_shouldNotReserveSeatWhenNoAvailableSeats() {
+        // given
+        int flightId = 1;
+        int passengerId = 3;
+        Flight flight = new Flight(FLIGHT_NUMBER, FLIGHT_ROUTE, DEPARTURE, NO_AVAILABLE_SEATS, new HashSet<>());
+        when(mockFlightRepository.findById(flightId)).thenReturn(Optional.of(flight));
+        when(passengerService.getPassenger(passengerId)).thenReturn(new Passenger());
+
+        // when
+        assertThrows(NoAvailableSeatsException.class, () -> flightService.addPassenger(flightId, passengerId));
+
+        // then
+        verifyNoInteractions(seatReservationService);
+    }
+
     @Test
     void validateFlightForAddPassenger_shouldPass() {
         // given
@@ -158,7 +229,7 @@ class FlightServiceTest {
         // given
         Flight flight = new Flight(FLIGHT_NUMBER, FLIGHT_ROUTE, DEPARTURE, AVAILABLE_SEATS, PASSENGERS);
         Passenger passenger = new Passenger();
-        flight.addPassenger(passenger);
+        when(mockFlightRepository.containsPassenger(flight.getId(), passenger.getId())).thenReturn(true);
 
         // when
         DuplicatePassengerException thrown = assertThrows(DuplicatePassengerException.class,
@@ -179,13 +250,14 @@ class FlightServiceTest {
         Flight flight = new Flight(FLIGHT_NUMBER, FLIGHT_ROUTE, DEPARTURE, AVAILABLE_SEATS, passengers);
         when(mockFlightRepository.findById(flightId)).thenReturn(Optional.of(flight));
         when(passengerService.getPassenger(passengerId)).thenReturn(passenger);
+        when(mockFlightRepository.containsPassenger(flight.getId(), passenger.getId())).thenReturn(true);
 
         // when
         flightService.deletePassenger(flightId, passengerId);
 
         // then
-        assertEquals(0, flight.getPassengers().size());
-        assertEquals(AVAILABLE_SEATS + 1, flight.getAvailableSeats());
+        verify(seatReservationService, times(1)).release(flight, passenger);
+        verify(mockFlightRepository, times(2)).findById(flightId);
     }
 
     @Test
@@ -206,7 +278,7 @@ class FlightServiceTest {
         // given
         Flight flight = new Flight(FLIGHT_NUMBER, FLIGHT_ROUTE, DEPARTURE, NO_AVAILABLE_SEATS, PASSENGERS);
         Passenger passenger = new Passenger();
-        flight.getPassengers().add(passenger);
+        when(mockFlightRepository.containsPassenger(flight.getId(), passenger.getId())).thenReturn(true);
 
         // when + then
         assertDoesNotThrow(() -> flightService.validateFlightForDeletePassenger(flight, passenger));
@@ -278,4 +350,137 @@ class FlightServiceTest {
         // then
         assertTrue(thrown.getMessage().contains("Flight with id = " + flightId + " not found"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void search_shouldUseOriginAndDestinationWhenRouteIsMissing() {
+        // given
+        Pageable pageable = PageRequest.of(0, 20);
+        Flight flight = new Flight(FLIGHT_NUMBER, FLIGHT_ROUTE, DEPARTURE, AVAILABLE_SEATS, PASSENGERS);
+        when(mockFlightRepository.findByOriginStartingWithAndDestinationStartingWithAndDepartureAfterAndDepartureBeforeAndAvailableSeatsGreaterThanEqual(
+                eq("Chicago"), eq(""), any(LocalDateTime.class), any(LocalDateTime.class), eq(10), eq(pageable)))
+                .thenReturn(new SliceImpl<>(List.of(flight)));
+
+        // when
+        List<FlightDTO> result = flightService.search(null, "Chicago", null, null, null, 10, pageable);
+
+        // then
+        assertEquals(1, result.size());
+        verify(mockFlightRepository, never()).findByRouteContainingAndDepartureAfterAndDepartureBeforeAndAvailableSeatsGreaterThanEqual(
+                any(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void search_shouldUseRouteWhenGiven() {
+        // given
+        Pageable pageable = PageRequest.of(0, 20);
+        when(mockFlightRepository.findByRouteContainingAndDepartureAfterAndDepartureBeforeAndAvailableSeatsGreaterThanEqual(
+                eq("Warsaw"), eq(DEPARTURE), eq(DEPARTURE.plusDays(1)), eq(0), eq(pageable)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        // when
+        List<FlightDTO> result = flightService.search("Warsaw", null, null, DEPARTURE, DEPARTURE.plusDays(1), null, pageable);
+
+        // then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void shouldSplitRouteIntoOriginAndDestination() {
+        // given
+        Flight flight = new Flight(FLIGHT_NUMBER, "Baden-Baden - Warsaw", DEPARTURE, AVAILABLE_SEATS, PASSENGERS);
+
+        // when
+        flight.setRoute("Oslo-Berlin");
+
+        // then
+        assertEquals("Oslo", flight.getOrigin());
+        assertEquals("Berlin", flight.getDestination());
+        assertEquals("Baden-Baden", new Flight(FLIGHT_NUMBER, "Baden-Baden - Warsaw", DEPARTURE, AVAILABLE_SEATS, PASSENGERS).getOrigin());
+    }
+
+    @Test
+    void addPassengers_shouldRejectMissingAndDuplicatePassengersAndBookTheRest() {
+        // given
+        int flightId = 1;
+        Passenger onBoard = passengerWithId(3);
+        Passenger newcomer = passengerWithId(4);
+        Flight flight = new Flight(FLIGHT_NUMBER, FLIGHT_ROUTE, DEPARTURE, AVAILABLE_SEATS, new HashSet<>());
+        List<Integer> passengerIds = List.of(4, 3, 5, 4);
+        when(mockFlightRepository.findById(flightId)).thenReturn(Optional.of(flight));
+        when(passengerService.getPassengers(passengerIds)).thenReturn(List.of(onBoard, newcomer));
+        when(mockFlightRepository.findPassengerIdsOnFlight(flight.getId(), Set.of(3, 4))).thenReturn(List.of(3));
+        when(seatReservationService.reserveAll(flight, List.of(4))).thenReturn(true);
+
+        // when
+        List<BookingResultDTO> results = flightService.addPassengers(flightId, passengerIds);
+
+        // then
+        assertEquals(List.of(true, false, false, false), results.stream().map(BookingResultDTO::booked).toList());
+        assertTrue(results.get(1).error().contains("is already added to flight number LO"));
+        assertTrue(results.get(2).error().contains("not found"));
+        assertTrue(results.get(3).error().contains("is already added to flight number LO"));
+    }
+
+    @Test
+    void addPassengers_shouldRejectAllAcceptedPassengersWhenSeatsRunOut() {
+        // given
+        int flightId = 1;
+        Flight flight = new Flight(FLIGHT_NUMBER, FLIGHT_ROUTE, DEPARTURE, 1, new HashSet<>());
+        List<Integer> passengerIds = List.of(3, 4);
+        when(mockFlightRepository.findById(flightId)).thenReturn(Optional.of(flight));
+        when(passengerService.getPassengers(passengerIds)).thenReturn(List.of(passengerWithId(3), passengerWithId(4)));
+        when(seatReservationService.reserveAll(flight, passengerIds)).thenReturn(false);
+
+        // when
+        List<BookingResultDTO> results = flightService.addPassengers(flightId, passengerIds);
+
+        // then
+        assertTrue(results.stream().noneMatch(BookingResultDTO::booked));
+        assertTrue(results.stream().allMatch(result -> result.error().contains("No available seats on flight number LO")));
+    }
+
+    @Test
+    void addPassengers_shouldRejectBookingsForMissingFlight() {
+        // given
+        when(mockFlightRepository.findById(23)).thenReturn(Optional.empty());
+
+        // when
+        List<BookingResultDTO> results = flightService.addPassengers(List.of(new FlightBookingDTO(23, List.of(3, 4))));
+
+        // then
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(result -> result.error().equals("Flight with id = 23 not found")));
+        verifyNoInteractions(seatReservationService);
+    }
+
+    @Test
+    void addPassengers_shouldReturnResultsInRequestOrder() {
+        // given
+        Flight later = new Flight(FLIGHT_NUMBER, FLIGHT_ROUTE, DEPARTURE, AVAILABLE_SEATS, new HashSet<>());
+        Flight earlier = new Flight(FLIGHT_NUMBER + 1, FLIGHT_ROUTE, DEPARTURE, AVAILABLE_SEATS, new HashSet<>());
+        ReflectionTestUtils.setField(later, "id", 7);
+        ReflectionTestUtils.setField(earlier, "id", 2);
+        when(mockFlightRepository.findById(7)).thenReturn(Optional.of(later));
+        when(mockFlightRepository.findById(2)).thenReturn(Optional.of(earlier));
+        when(passengerService.getPassengers(List.of(3))).thenReturn(List.of(passengerWithId(3)));
+        when(passengerService.getPassengers(List.of(4))).thenReturn(List.of(passengerWithId(4)));
+        when(seatReservationService.reserveAll(any(Flight.class), anyList())).thenReturn(true);
+
+        // when
+        List<BookingResultDTO> results = flightService.addPassengers(List.of(
+                new FlightBookingDTO(7, List.of(3)),
+                new FlightBookingDTO(2, List.of(4))));
+
+        // then
+        assertEquals(List.of(7, 2), results.stream().map(BookingResultDTO::flightId).toList());
+        InOrder lockOrder = inOrder(seatReservationService);
+        lockOrder.verify(seatReservationService).reserveAll(earlier, List.of(4));
+        lockOrder.verify(seatReservationService).reserveAll(later, List.of(3));
+    }
+
+    private Passenger passengerWithId(int id) {
+        Passenger passenger = new Passenger();
+        ReflectionTestUtils.setField(passenger, "id", id);
+        return passenger;
+    }
+}
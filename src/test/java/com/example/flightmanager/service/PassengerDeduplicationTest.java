@@ -0,0 +1,74 @@
+package com.example.flightmanager.service;
+
+import com.example.flightmanager.dto.DeduplicationResultDTO;
+import com.example.flightmanager.model.Flight;
+import com.example.flightmanager.model.Passenger;
+import com.example.flightmanager.repository.FlightRepository;
+import com.example.flightmanager.repository.PassengerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:deduplication;DB_CLOSE_DELAY=-1")
+class PassengerDeduplicationTest {
+    private static final int LEGACY_ID = 1_000_000;
+
+    @Autowired
+    private PassengerDeduplication passengerDeduplication;
+    @Autowired
+    private FlightService flightService;
+    @Autowired
+    private FlightRepository flightRepository;
+    @Autowired
+    private PassengerRepository passengerRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from flights_passengers");
+        jdbcTemplate.update("delete from flights");
+        jdbcTemplate.update("delete from passengers");
+    }
+
+    @Test
+    void mergeDuplicates_shouldMoveBookingsToSurvivorAndDeleteDuplicates() {
+        // given
+        Passenger han = passengerRepository.save(new Passenger("Han", "Solo", "123 456 789"));
+        insertLegacyPassenger(LEGACY_ID + 1, "HAN ", "solo", "123-456-789");
+        insertLegacyPassenger(LEGACY_ID + 2, "Leia", "Organa", "321");
+        insertLegacyPassenger(LEGACY_ID + 3, "leia", "ORGANA", "3 2 1");
+        Flight both = flightRepository.save(new Flight(1, "Warsaw - Oslo", LocalDateTime.now().plusDays(1), 10, new HashSet<>()));
+        Flight duplicateOnly = flightRepository.save(new Flight(2, "Warsaw - Rome", LocalDateTime.now().plusDays(1), 10, new HashSet<>()));
+        flightService.addPassenger(both.getId(), han.getId());
+        flightService.addPassenger(both.getId(), LEGACY_ID + 1);
+        flightService.addPassenger(duplicateOnly.getId(), LEGACY_ID + 1);
+        flightService.addPassenger(duplicateOnly.getId(), LEGACY_ID + 3);
+
+        // when
+        DeduplicationResultDTO result = passengerDeduplication.mergeDuplicates();
+
+        // then
+        assertEquals(new DeduplicationResultDTO(3, 2), result);
+        assertEquals(List.of(han.getId(), LEGACY_ID + 2), passengerRepository.findAll().stream().map(Passenger::getId).sorted().toList());
+        assertTrue(passengerRepository.findByFingerprint("leia|organa|321").isPresent());
+        assertTrue(flightRepository.containsPassenger(both.getId(), han.getId()));
+        assertEquals(9, flightRepository.findById(both.getId()).orElseThrow().getAvailableSeats());
+        assertTrue(flightRepository.containsPassenger(duplicateOnly.getId(), han.getId()));
+        assertTrue(flightRepository.containsPassenger(duplicateOnly.getId(), LEGACY_ID + 2));
+        assertEquals(8, flightRepository.findById(duplicateOnly.getId()).orElseThrow().getAvailableSeats());
+        assertEquals(new DeduplicationResultDTO(0, 0), passengerDeduplication.mergeDuplicates());
+    }
+
+    private void insertLegacyPassenger(int id, String name, String surname, String phone) {
+        jdbcTemplate.update("insert into passengers (id, version, name, surname, phone) values (?, 0, ?, ?, ?)", id, name, surname, phone);
+    }
+}
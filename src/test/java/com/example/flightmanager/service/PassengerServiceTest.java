@@ -1,6 +1,8 @@
 package com.example.flightmanager.service;
 
+import com.example.flightmanager.dto.CursorPageDTO;
 import com.example.flightmanager.dto.PassengerDTO;
+import com.example.flightmanager.exception.InvalidCursorException;
 import com.example.flightmanager.exception.PassengerNotFoundException;
 import com.example.flightmanager.mapper.PassengerMapper;
 import com.example.flightmanager.model.Passenger;
@@ -10,11 +12,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,6 +58,28 @@ class PassengerServiceTest {
         assertEquals(PHONE_NUMBER, result.phone());
     }
 
+    @Test
+    void upsertPassenger_shouldReturnPassengerStoredConcurrently() {
+        // given
+        PassengerDTO passengerDTO = new PassengerDTO(-1, NAME, SURNAME, PHONE_NUMBER);
+        Passenger passenger = new Passenger(NAME, SURNAME, PHONE_NUMBER);
+        Passenger stored = new Passenger(NAME, SURNAME, PHONE_NUMBER);
+        PassengerDTO storedDTO = new PassengerDTO(3, NAME, SURNAME, PHONE_NUMBER);
+
+        when(passengerMapper.dtoToEntity(passengerDTO)).thenReturn(passenger);
+        when(mockPassengerRepository.findByFingerprint(passenger.getFingerprint()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(stored));
+        when(mockPassengerRepository.save(passenger)).thenThrow(new DataIntegrityViolationException("uk_passengers_fingerprint"));
+        when(passengerMapper.entityToDto(stored)).thenReturn(storedDTO);
+
+        // when
+        PassengerDTO result = passengerService.upsertPassenger(passengerDTO);
+
+        // then
+        assertEquals(3, result.id());
+    }
+
     @Test
     void shouldReadAllPassengers() {
         // given
@@ -66,6 +96,50 @@ class PassengerServiceTest {
         assertEquals(result.size(), 2);
     }
 
+    @Test
+    void shouldExportAllPassengers() {
+        // given
+        Passenger passenger = new Passenger(NAME, SURNAME, PHONE_NUMBER);
+        PassengerDTO passengerDTO = new PassengerDTO(1, NAME, SURNAME, PHONE_NUMBER);
+        when(mockPassengerRepository.streamAll()).thenReturn(Stream.of(passenger, passenger, passenger));
+        when(passengerMapper.entityToDto(passenger)).thenReturn(passengerDTO);
+        List<PassengerDTO> exported = new ArrayList<>();
+
+        // when
+        passengerService.exportPassengers(exported::add);
+
+        // then
+        assertEquals(3, exported.size());
+        assertEquals(NAME, exported.get(0).name());
+    }
+
+    @Test
+    void readPassengersAfter_shouldReturnNextCursorWhenMoreRowsExist() {
+        // given
+        Passenger passenger = new Passenger(NAME, SURNAME, PHONE_NUMBER);
+        PassengerDTO passengerDTO = new PassengerDTO(1, NAME, SURNAME, PHONE_NUMBER);
+        when(mockPassengerRepository.findByIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class)))
+                .thenReturn(List.of(passenger, passenger, passenger));
+        when(passengerMapper.entityToDto(passenger)).thenReturn(passengerDTO);
+
+        // when
+        CursorPageDTO<PassengerDTO> result = passengerService.readPassengersAfter(null, 2);
+
+        // then
+        assertEquals(2, result.content().size());
+        assertNotNull(result.nextCursor());
+    }
+
+    @Test
+    void readPassengersAfter_shouldThrowInvalidCursorException() {
+        // when
+        InvalidCursorException thrown = assertThrows(InvalidCursorException.class,
+                () -> passengerService.readPassengersAfter("%%%", 2));
+
+        // then
+        assertTrue(thrown.getMessage().contains("is not valid"));
+    }
+
     @Test
     void shouldGetPassenger() {
         // given
@@ -0,0 +1,91 @@
+package com.example.flightmanager.service;
+
+import com.example.flightmanager.exception.NoAvailableSeatsException;
+import com.example.flightmanager.model.Flight;
+import com.example.flightmanager.model.Passenger;
+import com.example.flightmanager.repository.FlightRepository;
+import com.example.flightmanager.repository.PassengerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SeatReservationServiceTest {
+    private final int SEATS = 50;
+    private final int REQUESTS = 2000;
+    private final int THREADS = 32;
+
+    @Autowired
+    private FlightService flightService;
+    @Autowired
+    private FlightRepository flightRepository;
+    @Autowired
+    private PassengerRepository passengerRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Flight flight;
+    private final List<Passenger> passengers = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        if (flight != null) {
+            flightRepository.delete(flightRepository.findById(flight.getId()).orElseThrow());
+        }
+        passengers.forEach(passengerRepository::delete);
+    }
+
+    @Test
+    void shouldNeverOverbookUnderConcurrentBookings() throws Exception {
+        // given
+        flight = flightRepository.save(new Flight(7, "Warsaw - Oslo", LocalDateTime.now().plusDays(3), SEATS, new HashSet<>()));
+        for (int i = 0; i < REQUESTS; i++) {
+            passengers.add(passengerRepository.save(new Passenger("Name" + i, "Surname" + i, "000 000 " + i)));
+        }
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (Passenger passenger : passengers) {
+            futures.add(executor.submit(() -> {
+                try {
+                    flightService.addPassenger(flight.getId(), passenger.getId());
+                    booked.incrementAndGet();
+                } catch (NoAvailableSeatsException e) {
+                    rejected.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // then
+        assertEquals(SEATS, booked.get());
+        assertEquals(REQUESTS - SEATS, rejected.get());
+        transactionTemplate.executeWithoutResult(status -> {
+            Flight result = flightRepository.findById(flight.getId()).orElseThrow();
+            assertEquals(0, result.getAvailableSeats());
+            assertEquals(SEATS, result.getPassengers().size());
+        });
+    }
+}